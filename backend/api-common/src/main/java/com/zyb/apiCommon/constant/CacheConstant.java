@@ -0,0 +1,12 @@
+package com.zyb.apiCommon.constant;
+
+/**
+ * 网关缓存相关常量
+ */
+public interface CacheConstant {
+
+    /**
+     * 缓存失效事件的 Redis 发布/订阅频道，后台修改数据后发布，各网关节点订阅后清理本地缓存
+     */
+    String CACHE_INVALIDATION_CHANNEL = "gateway:cache:invalidation";
+}
@@ -0,0 +1,27 @@
+package com.zyb.apiCommon.constant;
+
+/**
+ * 网关 Sentinel 规则相关常量
+ */
+public interface SentinelRuleConstant {
+
+    /**
+     * 规则集在 Redis 中的 key，值为 {@link com.zyb.apiCommon.model.dto.SentinelRuleSet} 的 JSON
+     */
+    String SENTINEL_RULES_KEY = "gateway:sentinel:rules";
+
+    /**
+     * 规则变更的 Redis 发布/订阅频道，网关收到后重新读取规则集
+     */
+    String SENTINEL_RULES_CHANNEL = "gateway:sentinel:rules:changed";
+
+    /**
+     * 网关入口的资源名
+     */
+    String GATEWAY_RESOURCE = "api-gateway-filter";
+
+    /**
+     * 单个接口的资源名前缀，后接接口 id
+     */
+    String INTERFACE_RESOURCE_PREFIX = "interface:";
+}
@@ -0,0 +1,69 @@
+package com.zyb.apiCommon.model.dto;
+
+import com.zyb.apiCommon.model.enums.CacheInvalidationTypeEnum;
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 缓存失效事件，只携带定位缓存所需的业务字段，由网关自行拼接缓存 key
+ */
+@Data
+public class CacheInvalidationEvent implements Serializable {
+
+    /**
+     * 事件类型
+     */
+    private CacheInvalidationTypeEnum type;
+
+    /**
+     * 用户 accessKey（USER）
+     */
+    private String accessKey;
+
+    /**
+     * 接口地址（INTERFACE）
+     */
+    private String url;
+
+    /**
+     * 请求类型（INTERFACE）
+     */
+    private String method;
+
+    /**
+     * 用户 id（USER_INTERFACE）
+     */
+    private Long userId;
+
+    /**
+     * 接口 id（INTERFACE、USER_INTERFACE）
+     */
+    private Long interfaceInfoId;
+
+    public static CacheInvalidationEvent ofUser(String accessKey) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent();
+        event.setType(CacheInvalidationTypeEnum.USER);
+        event.setAccessKey(accessKey);
+        return event;
+    }
+
+    public static CacheInvalidationEvent ofInterface(Long interfaceInfoId, String url, String method) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent();
+        event.setType(CacheInvalidationTypeEnum.INTERFACE);
+        event.setInterfaceInfoId(interfaceInfoId);
+        event.setUrl(url);
+        event.setMethod(method);
+        return event;
+    }
+
+    public static CacheInvalidationEvent ofUserInterface(Long userId, Long interfaceInfoId) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent();
+        event.setType(CacheInvalidationTypeEnum.USER_INTERFACE);
+        event.setUserId(userId);
+        event.setInterfaceInfoId(interfaceInfoId);
+        return event;
+    }
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,29 @@
+package com.zyb.apiCommon.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * 批量计费结果
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvokeCountBatchResult implements Serializable {
+
+    /**
+     * 该批次此前已提交成功，本次未重复记账
+     */
+    private boolean duplicate;
+
+    /**
+     * 被跳过的增量（参数不合法或用户未开通该接口），重试也不会成功
+     */
+    private List<InvokeCountDelta> rejected;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,33 @@
+package com.zyb.apiCommon.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * 接口调用次数增量（网关批量计费使用）
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InvokeCountDelta implements Serializable {
+
+    /**
+     * 调用用户 id
+     */
+    private Long userId;
+
+    /**
+     * 接口 id
+     */
+    private Long interfaceInfoId;
+
+    /**
+     * 本批次内的调用次数
+     */
+    private Integer count;
+
+    private static final long serialVersionUID = 1L;
+}
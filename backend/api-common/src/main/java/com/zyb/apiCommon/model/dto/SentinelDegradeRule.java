@@ -0,0 +1,49 @@
+package com.zyb.apiCommon.model.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 熔断规则，字段含义与 Sentinel DegradeRule 一致
+ */
+@Data
+public class SentinelDegradeRule implements Serializable {
+
+    /**
+     * 资源名
+     */
+    private String resource;
+
+    /**
+     * 熔断策略（0-慢调用比例，1-异常比例，2-异常数）
+     */
+    private Integer grade;
+
+    /**
+     * 阈值：慢调用比例时为最大响应时间（毫秒），异常比例时为比例，异常数时为个数
+     */
+    private Double count;
+
+    /**
+     * 熔断时长（秒）
+     */
+    private Integer timeWindow;
+
+    /**
+     * 触发熔断的最小请求数
+     */
+    private Integer minRequestAmount = 5;
+
+    /**
+     * 统计时长（毫秒）
+     */
+    private Integer statIntervalMs = 1000;
+
+    /**
+     * 慢调用比例阈值，仅慢调用比例策略有效
+     */
+    private Double slowRatioThreshold = 1.0;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,34 @@
+package com.zyb.apiCommon.model.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 流控规则，字段含义与 Sentinel FlowRule 一致
+ */
+@Data
+public class SentinelFlowRule implements Serializable {
+
+    /**
+     * 资源名
+     */
+    private String resource;
+
+    /**
+     * 阈值类型（0-并发线程数，1-QPS）
+     */
+    private Integer grade = 1;
+
+    /**
+     * 阈值
+     */
+    private Double count;
+
+    /**
+     * 流控效果（0-直接拒绝，1-预热，2-匀速排队）
+     */
+    private Integer controlBehavior = 0;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,26 @@
+package com.zyb.apiCommon.model.dto;
+
+import lombok.Data;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 网关 Sentinel 规则集，整体替换
+ */
+@Data
+public class SentinelRuleSet implements Serializable {
+
+    /**
+     * 流控规则
+     */
+    private List<SentinelFlowRule> flowRules = new ArrayList<>();
+
+    /**
+     * 熔断规则
+     */
+    private List<SentinelDegradeRule> degradeRules = new ArrayList<>();
+
+    private static final long serialVersionUID = 1L;
+}
@@ -64,6 +64,21 @@ public class InterfaceInfo implements Serializable {
      */
     private String method;
 
+    /**
+     * 每秒调用上限（为空表示不限制）
+     */
+    private Integer qpsLimit;
+
+    /**
+     * 网关是否缓存响应（0-否，1-是，仅 GET 接口）
+     */
+    private Integer cacheable;
+
+    /**
+     * 响应缓存时长（秒）
+     */
+    private Integer cacheTtl;
+
     /**
      * 创建人
      */
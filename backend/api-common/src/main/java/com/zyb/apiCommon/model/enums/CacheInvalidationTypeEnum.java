@@ -0,0 +1,21 @@
+package com.zyb.apiCommon.model.enums;
+
+import lombok.Getter;
+
+/**
+ * 缓存失效事件类型枚举
+ */
+@Getter
+public enum CacheInvalidationTypeEnum {
+
+    USER("用户"),
+    INTERFACE("接口信息"),
+    USER_INTERFACE("用户接口关系");
+
+    private final String text;
+
+    CacheInvalidationTypeEnum(String text) {
+        this.text = text;
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.zyb.apiCommon.model.vo;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.beans.ConstructorProperties;
+import java.io.Serializable;
+
+/**
+ * 网关鉴权信息（只包含网关校验请求所需的字段，不可变）
+ */
+@Getter
+@ToString(exclude = "secretKey")
+public class GatewayAuthVO implements Serializable {
+
+    /**
+     * 用户 id
+     */
+    private final Long userId;
+
+    /**
+     * 签名密钥
+     */
+    private final String secretKey;
+
+    /**
+     * 用户角色：user/admin/ban
+     */
+    private final String userRole;
+
+    /**
+     * 是否被封禁
+     */
+    private final boolean banned;
+
+    @ConstructorProperties({"userId", "secretKey", "userRole", "banned"})
+    public GatewayAuthVO(Long userId, String secretKey, String userRole, boolean banned) {
+        this.userId = userId;
+        this.secretKey = secretKey;
+        this.userRole = userRole;
+        this.banned = banned;
+    }
+
+    private static final long serialVersionUID = 1L;
+}
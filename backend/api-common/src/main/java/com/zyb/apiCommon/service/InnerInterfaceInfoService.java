@@ -2,6 +2,8 @@ package com.zyb.apiCommon.service;
 
 import com.zyb.apiCommon.model.entity.InterfaceInfo;
 
+import java.util.List;
+
 /**
  * 内部接口信息服务
  */
@@ -11,4 +13,9 @@ public interface InnerInterfaceInfoService {
      * 从数据库中查询模拟接口是否存在
      */
     InterfaceInfo getInterfaceInfo(String path, String method);
-}
\ No newline at end of file
+
+    /**
+     * 查询所有未删除的接口（含已下线的），供网关构建路由表
+     */
+    List<InterfaceInfo> listInterfaceInfo();
+}
@@ -1,7 +1,11 @@
 package com.zyb.apiCommon.service;
 
+import com.zyb.apiCommon.model.dto.InvokeCountBatchResult;
+import com.zyb.apiCommon.model.dto.InvokeCountDelta;
 import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
 
+import java.util.List;
+
 /**
  * 内部用户接口信息服务
  */
@@ -16,4 +20,13 @@ public interface InnerUserInterfaceInfoService {
      * 调用接口，统一处理计数和扣费
      */
     boolean invokeCountAndDeductBalance(long interfaceInfoId, long userId);
+
+    /**
+     * 批量累加调用次数（网关异步计费，同一用户同一接口的调用已合并）
+     * <p>
+     * 同一 batchId 只记账一次，超时重试不会重复累加；不合法或未开通的增量跳过并在结果中返回，不影响同批次其他增量。
+     *
+     * @param batchId 批次 id，重试时保持不变
+     */
+    InvokeCountBatchResult batchInvokeCount(String batchId, List<InvokeCountDelta> deltas);
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.zyb.apiCommon.service;
 
 import com.zyb.apiCommon.model.entity.User;
+import com.zyb.apiCommon.model.vo.GatewayAuthVO;
 
 /**
  * 内部用户信息服务
@@ -11,4 +12,9 @@ public interface InnerUserService {
      * 数据库中查是否已分配给用户 ak
      */
     User getDbUser(String accessKey);
+
+    /**
+     * 根据 ak 查询网关鉴权所需的信息，ak 未分配时返回 null
+     */
+    GatewayAuthVO getGatewayAuth(String accessKey);
 }
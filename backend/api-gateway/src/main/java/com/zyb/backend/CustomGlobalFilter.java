@@ -1,54 +1,105 @@
 package com.zyb.backend;
 
+import com.alibaba.csp.sentinel.AsyncEntry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.Tracer;
 import com.alibaba.csp.sentinel.annotation.SentinelResource;
 import com.alibaba.csp.sentinel.slots.block.BlockException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.zyb.apiClientSdk.utils.SignUtils;
+import com.zyb.apiCommon.constant.SentinelRuleConstant;
 import com.zyb.apiCommon.model.entity.InterfaceInfo;
-import com.zyb.apiCommon.model.entity.User;
-import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
-import com.zyb.apiCommon.service.InnerUserInterfaceInfoService;
+import com.zyb.apiCommon.model.enums.InterfaceInfoStatusEnum;
+import com.zyb.apiCommon.model.vo.GatewayAuthVO;
+import com.zyb.backend.billing.BillingService;
+import com.zyb.backend.billing.MeteredResponseDecorator;
 import com.zyb.backend.cache.CacheService;
+import com.zyb.backend.cache.CachedResponse;
+import com.zyb.backend.cache.ResponseCache;
 import com.zyb.backend.common.ErrorCodeEnum;
 import com.zyb.backend.config.GatewayConfig;
+import com.zyb.backend.config.NonceConfig;
+import com.zyb.backend.config.ResponseLogConfig;
+import com.zyb.backend.nonce.NonceService;
+import com.zyb.backend.nonce.NonceUnavailableException;
+import com.zyb.backend.quota.QuotaResult;
+import com.zyb.backend.quota.QuotaService;
+import com.zyb.backend.ratelimit.RateLimitService;
+import com.zyb.backend.route.RouteTable;
+import com.zyb.backend.sign.CachedBodyRequest;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.dubbo.config.annotation.DubboReference;
-import org.reactivestreams.Publisher;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpResponse;
-import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
-import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
 
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 
     @Slf4j
     @Component
     public class CustomGlobalFilter implements GlobalFilter, Ordered {
 
-        @DubboReference
-        private InnerUserInterfaceInfoService innerUserInterfaceInfoService;
+        /**
+         * 上游调用失败时计入 Sentinel 异常统计的异常，只用于统计，不抛出
+         */
+        private static final Throwable UPSTREAM_FAILURE = new IllegalStateException("上游调用失败");
+
+        /**
+         * 管理员角色，可以调用已下线的接口（上线前的测试调用）
+         */
+        private static final String ADMIN_ROLE = "admin";
+
+        @Resource
+        private BillingService billingService;
 
         @Resource
         private CacheService cacheService;
 
+        @Resource
+        private QuotaService quotaService;
+
+        @Resource
+        private RouteTable routeTable;
+
+        @Resource
+        private NonceService nonceService;
+
+        @Resource
+        private RateLimitService rateLimitService;
+
+        @Resource
+        private ResponseCache responseCache;
+
+        @Resource
+        private NonceConfig nonceConfig;
+
         @Resource
         private GatewayConfig gatewayConfig;
 
+        @Resource
+        private ResponseLogConfig responseLogConfig;
+
     @Override
     @SentinelResource(
         value = "api-gateway-filter",
@@ -57,11 +108,8 @@ import java.util.Map;
     )
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        String path = request.getPath().value();
-        String method = request.getMethod().toString();
         String sourceAddress = request.getLocalAddress().getHostString();
         ServerHttpResponse response = exchange.getResponse();
-        String fullUrl = gatewayConfig.getHost() + path;
 
         // 1. 黑白名单
         if (!gatewayConfig.getIpWhiteList().contains(sourceAddress)) {
@@ -76,139 +124,417 @@ import java.util.Map;
         String timestamp = headers.getFirst("timestamp");
         String sign = headers.getFirst("sign");
 
-        String body;
-        if ("GET".equalsIgnoreCase(method)) {
-            // GET请求使用空字符串作为body参与签名
-            body = "";
-        } else {
-            // POST等其他请求从header中获取body
-            body = headers.getFirst("body");
-            // 处理编码问题
-            if (body != null) {
-                try {
-                    body = new String(body.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
-                } catch (Exception e) {
-                    log.warn("Body编码转换失败: {}", e.getMessage());
-                }
-            }
-        }
-
         // 校验参数
-        if (accessKey == null || nonce == null || timestamp == null || sign == null || (!"GET".equalsIgnoreCase(method) && body == null)) {
+        if (accessKey == null || nonce == null || timestamp == null || sign == null) {
             log.error("请求头参数不完整");
             return handleNoAuth(response, ErrorCodeEnum.MISSING_HEADERS);
         }
 
-        // 使用缓存查询用户信息
-        User dbUser = null;
-        try {
-            dbUser = cacheService.getUserByAccessKey(accessKey);
-        } catch (Exception e) {
-            log.error("查询用户信息失败", e);
-        }
-        if (dbUser == null) {
-            log.error("用户不存在, accessKey: {}", accessKey);
-            return handleNoAuth(response, ErrorCodeEnum.INVALID_ACCESS_KEY);
+        // 使用缓存查询用户鉴权信息，未命中时异步加载，不阻塞事件循环线程
+        return cacheService.getGatewayAuth(accessKey)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.error("查询用户信息失败", e);
+                    return Mono.just(Optional.empty());
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(gatewayAuth -> {
+                    if (gatewayAuth.isEmpty()) {
+                        log.error("用户不存在, accessKey: {}", accessKey);
+                        return handleNoAuth(response, ErrorCodeEnum.INVALID_ACCESS_KEY);
+                    }
+                    return authenticate(exchange, chain, gatewayAuth.get(), accessKey, nonce, timestamp, sign);
+                });
+    }
+
+    /**
+     * 查到用户后的校验：封禁状态、随机数、时间戳、签名，通过后进入授权
+     */
+    private Mono<Void> authenticate(ServerWebExchange exchange, GatewayFilterChain chain, GatewayAuthVO gatewayAuth,
+                                    String accessKey, String nonce, String timestamp, String sign) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        HttpHeaders headers = request.getHeaders();
+        if (gatewayAuth.isBanned()) {
+            log.warn("用户已被封禁, userId: {}", gatewayAuth.getUserId());
+            return handleNoAuth(response, ErrorCodeEnum.USER_BANNED);
         }
 
-        // 校验随机数
-        if (Long.parseLong(nonce) >= 10000) {
+        // 校验随机数格式
+        if (nonce.isBlank() || nonce.length() > nonceConfig.getMaxNonceLength()) {
             return handleNoAuth(response, ErrorCodeEnum.INVALID_NONCE);
         }
 
-        // 校验时间戳与当前时间的差距不超过2分钟
+        // 校验时间戳在有效窗口内，且不超前服务端太多
         long currentTime = System.currentTimeMillis() / 1000;
-        if ((currentTime - Long.parseLong(timestamp)) >= 60 * 2L) {
+        long requestTime;
+        try {
+            requestTime = Long.parseLong(timestamp);
+        } catch (NumberFormatException e) {
+            return handleNoAuth(response, ErrorCodeEnum.TIMESTAMP_EXPIRED);
+        }
+        if (currentTime - requestTime >= nonceConfig.getWindowSeconds()
+                || requestTime - currentTime > nonceConfig.getMaxFutureSkewSeconds()) {
             return handleNoAuth(response, ErrorCodeEnum.TIMESTAMP_EXPIRED);
         }
 
-        String secretKey = dbUser.getSecretKey();
-        String serverSign = SignUtils.genSign(body, secretKey);
-        if (!sign.equals(serverSign)) {
-            log.error("签名验证失败");
+        // 签名覆盖实际发送的请求体：边读取边计算摘要，读取后的请求体转发给下游
+        String signVersion = headers.getFirst(SignUtils.SIGN_VERSION_HEADER);
+        MessageDigest bodyDigest = newBodyDigest(signVersion);
+        if (bodyDigest == null) {
+            log.error("不支持的签名版本: {}", signVersion);
             return handleNoAuth(response, ErrorCodeEnum.SIGNATURE_MISMATCH);
         }
+        return CachedBodyRequest.read(request, bodyDigest, gatewayConfig.getMaxBodyBytes())
+                .flatMap(cachedRequest -> {
+                    if (!verifySign(request, signVersion, sign, gatewayAuth.getSecretKey(), bodyDigest, timestamp, nonce)) {
+                        cachedRequest.release();
+                        log.error("签名验证失败, signVersion: {}", signVersion);
+                        return handleNoAuth(response, ErrorCodeEnum.SIGNATURE_MISMATCH);
+                    }
+                    ServerWebExchange cachedExchange = exchange.mutate().request(cachedRequest).build();
+                    return authorize(cachedExchange, chain, gatewayAuth, accessKey, nonce)
+                            .doFinally(signalType -> cachedRequest.release());
+                })
+                .onErrorResume(CachedBodyRequest.BodyTooLargeException.class, e -> {
+                    log.warn("请求体过大, accessKey: {}, {}", accessKey, e.getMessage());
+                    return handleNoAuth(response, ErrorCodeEnum.REQUEST_BODY_TOO_LARGE);
+                });
+    }
+
+    /**
+     * 签名通过后的校验：防重放、接口存在性、调用次数，全部通过后转发
+     */
+    private Mono<Void> authorize(ServerWebExchange exchange, GatewayFilterChain chain, GatewayAuthVO gatewayAuth,
+                                 String accessKey, String nonce) {
+        ServerHttpResponse response = exchange.getResponse();
+
+        // 签名通过后再记录随机数，避免伪造请求占用随机数
+        return nonceService.checkAndRecord(accessKey, nonce)
+                .flatMap(recorded -> {
+                    if (!recorded) {
+                        log.warn("请求重放, accessKey: {}, nonce: {}", accessKey, nonce);
+                        return handleNoAuth(response, ErrorCodeEnum.NONCE_REPLAYED);
+                    }
+                    return route(exchange, chain, gatewayAuth, accessKey);
+                })
+                .onErrorResume(NonceUnavailableException.class,
+                        e -> handleNoAuth(response, ErrorCodeEnum.NONCE_UNVERIFIABLE));
+    }
+
+    /**
+     * 从路由表查询接口信息，已下线的接口只允许管理员调用
+     */
+    private Mono<Void> route(ServerWebExchange exchange, GatewayFilterChain chain, GatewayAuthVO gatewayAuth,
+                             String accessKey) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
+        String path = request.getPath().value();
+        String method = request.getMethod().toString();
+
+        return routeTable.getInterfaceInfo(method, path)
+                .map(Optional::of)
+                .onErrorResume(e -> {
+                    log.error("查询接口信息失败", e);
+                    return Mono.just(Optional.empty());
+                })
+                .defaultIfEmpty(Optional.empty())
+                .flatMap(interfaceInfo -> {
+                    if (interfaceInfo.isEmpty()) {
+                        log.error("接口不存在，path: {}, method: {}", path, method);
+                        return handleNoAuth(response, ErrorCodeEnum.INTERFACE_NOT_FOUND);
+                    }
+                    if (!isOnline(interfaceInfo.get()) && !ADMIN_ROLE.equals(gatewayAuth.getUserRole())) {
+                        log.warn("接口已下线，path: {}, method: {}", path, method);
+                        return handleNoAuth(response, ErrorCodeEnum.INTERFACE_OFFLINE);
+                    }
+                    return forward(exchange, chain, gatewayAuth, accessKey, interfaceInfo.get());
+                });
+    }
+
+    /**
+     * 接口确定后的校验：限流、响应缓存，未命中缓存时继续熔断和调用次数校验
+     */
+    private Mono<Void> forward(ServerWebExchange exchange, GatewayFilterChain chain, GatewayAuthVO gatewayAuth,
+                               String accessKey, InterfaceInfo interfaceInfo) {
+        ServerHttpRequest request = exchange.getRequest();
+        ServerHttpResponse response = exchange.getResponse();
 
-        // 使用缓存查询接口信息
-        InterfaceInfo interfaceInfo = null;
+        // 多租户限流：按用户档位内的 accessKey 和接口分别计数，超限时与全局限流返回相同的响应
         try {
-            interfaceInfo = cacheService.getInterfaceInfo(fullUrl, method);
-        } catch (Exception e) {
-            log.error("查询接口信息失败", e);
+            rateLimitService.check(accessKey, gatewayAuth.getUserRole(), interfaceInfo);
+        } catch (BlockException e) {
+            return handleBlock(exchange, e);
         }
-        if (interfaceInfo == null) {
-            log.error("接口不存在，path: {}, method: {}", fullUrl, method);
-            return handleNoAuth(response, ErrorCodeEnum.INTERFACE_NOT_FOUND);
+
+        // 可缓存的接口先查网关响应缓存，命中时不调用上游，但同样扣减调用次数并计费
+        if (responseCache.isCacheable(interfaceInfo, request)) {
+            String responseCacheKey = responseCache.key(request);
+            return responseCache.get(responseCacheKey)
+                    .map(Optional::of)
+                    .defaultIfEmpty(Optional.empty())
+                    .flatMap(cachedResponse -> cachedResponse.isPresent()
+                            ? writeCachedResponse(response, gatewayAuth.getUserId(), interfaceInfo.getId(),
+                                    cachedResponse.get())
+                            : invoke(exchange, chain, gatewayAuth, interfaceInfo, responseCacheKey));
         }
+        return invoke(exchange, chain, gatewayAuth, interfaceInfo, null);
+    }
 
-        // TODO 接口全部改为免费，移除价格检查 (收费之后再改)
+    /**
+     * 熔断和调用次数校验通过后调用上游，responseCacheKey 不为空时缓存上游响应
+     */
+    private Mono<Void> invoke(ServerWebExchange exchange, GatewayFilterChain chain, GatewayAuthVO gatewayAuth,
+                              InterfaceInfo interfaceInfo, String responseCacheKey) {
+        ServerHttpResponse response = exchange.getResponse();
 
-        // 使用缓存校验用户调用次数
-        UserInterfaceInfo userInterfaceInfo = null;
+        // 每个接口独立的 Sentinel 资源，熔断只影响该接口；资源持有到响应结束，用于统计响应时间和失败
+        AsyncEntry upstreamEntry;
         try {
-            userInterfaceInfo = cacheService.getUserInterfaceInfo(dbUser.getId(), interfaceInfo.getId());
-        } catch (Exception e) {
-            log.error("获取用户接口调用信息失败", e);
+            upstreamEntry = SphU.asyncEntry(SentinelRuleConstant.INTERFACE_RESOURCE_PREFIX + interfaceInfo.getId(),
+                    EntryType.IN);
+        } catch (BlockException e) {
+            return handleBlock(exchange, e);
         }
 
-        if (userInterfaceInfo == null) {
-            log.error("用户未开通该接口调用权限，userId: {}, interfaceId: {}",
-                      dbUser.getId(), interfaceInfo.getId());
-            return handleNoAuth(response, ErrorCodeEnum.NO_INVOKE_PERMISSION);
-        }
+        // TODO 接口全部改为免费，移除价格检查 (收费之后再改)
 
-        if (userInterfaceInfo.getRemainNum() <= 0 && userInterfaceInfo.getRemainNum() != -1) {
-            log.error("用户调用次数不足，userId: {}, interfaceId: {}",
-                      dbUser.getId(), interfaceInfo.getId());
-            return handleNoAuth(response, ErrorCodeEnum.INSUFFICIENT_INVOCATIONS);
+        // 校验并预扣用户调用次数（Redis 计数器原子扣减，调用失败时退还）
+        // 预扣完成前出错或被取消时，Sentinel 资源还没有交给后续处理，需要在这里释放
+        AtomicBoolean handedOff = new AtomicBoolean();
+        Runnable exitIfPending = () -> {
+            if (handedOff.compareAndSet(false, true)) {
+                upstreamEntry.exit();
+            }
+        };
+        return quotaService.tryAcquire(gatewayAuth.getUserId(), interfaceInfo.getId())
+                .doOnError(e -> exitIfPending.run())
+                .doOnCancel(exitIfPending)
+                .flatMap(quotaResult -> {
+                    if (!handedOff.compareAndSet(false, true)) {
+                        return Mono.empty();
+                    }
+                    if (quotaResult == QuotaResult.NO_PERMISSION) {
+                        log.error("用户未开通该接口调用权限，userId: {}, interfaceId: {}",
+                                  gatewayAuth.getUserId(), interfaceInfo.getId());
+                        upstreamEntry.exit();
+                        return handleNoAuth(response, ErrorCodeEnum.NO_INVOKE_PERMISSION);
+                    }
+
+                    if (quotaResult == QuotaResult.EXHAUSTED) {
+                        log.error("用户调用次数不足，userId: {}, interfaceId: {}",
+                                  gatewayAuth.getUserId(), interfaceInfo.getId());
+                        upstreamEntry.exit();
+                        return handleNoAuth(response, ErrorCodeEnum.INSUFFICIENT_INVOCATIONS);
+                    }
+
+                    return interceptResponse(exchange, chain, interfaceInfo, gatewayAuth.getUserId(), upstreamEntry,
+                            responseCacheKey);
+                });
+    }
+
+    /**
+     * 返回缓存的响应：预扣调用次数，写出成功后计费，失败退还
+     */
+    private Mono<Void> writeCachedResponse(ServerHttpResponse response, long userId, long interfaceInfoId,
+                                           CachedResponse cachedResponse) {
+        return quotaService.tryAcquire(userId, interfaceInfoId).flatMap(quotaResult -> {
+            if (quotaResult == QuotaResult.NO_PERMISSION) {
+                log.error("用户未开通该接口调用权限，userId: {}, interfaceId: {}", userId, interfaceInfoId);
+                return handleNoAuth(response, ErrorCodeEnum.NO_INVOKE_PERMISSION);
+            }
+            if (quotaResult == QuotaResult.EXHAUSTED) {
+                log.error("用户调用次数不足，userId: {}, interfaceId: {}", userId, interfaceInfoId);
+                return handleNoAuth(response, ErrorCodeEnum.INSUFFICIENT_INVOCATIONS);
+            }
+
+            response.setStatusCode(HttpStatusCode.valueOf(cachedResponse.getStatus()));
+            HttpHeaders responseHeaders = response.getHeaders();
+            if (cachedResponse.getContentType() != null) {
+                responseHeaders.setContentType(MediaType.parseMediaType(cachedResponse.getContentType()));
+            }
+            if (cachedResponse.getContentEncoding() != null) {
+                responseHeaders.set(HttpHeaders.CONTENT_ENCODING, cachedResponse.getContentEncoding());
+            }
+            responseHeaders.setContentLength(cachedResponse.getBody().length);
+            responseHeaders.set(ResponseCache.CACHE_STATUS_HEADER, "HIT");
+            return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(cachedResponse.getBody())))
+                    .doFinally(signalType -> {
+                        if (signalType == SignalType.ON_COMPLETE) {
+                            billingService.record(userId, interfaceInfoId);
+                        } else {
+                            quotaService.release(userId, interfaceInfoId);
+                        }
+                    });
+        });
+    }
+
+    /**
+     * 接口是否已上线
+     */
+    private static boolean isOnline(InterfaceInfo interfaceInfo) {
+        return interfaceInfo.getStatus() != null
+                && interfaceInfo.getStatus() == InterfaceInfoStatusEnum.ONLINE.getValue();
+    }
+
+    /**
+     * 按签名版本创建请求体摘要，未携带签名版本时按旧版 MD5 签名处理，不支持的版本返回 null
+     */
+    private MessageDigest newBodyDigest(String signVersion) {
+        String algorithm;
+        if (signVersion == null || SignUtils.SIGN_VERSION_MD5.equals(signVersion)) {
+            if (!gatewayConfig.isLegacySignEnabled()) {
+                return null;
+            }
+            algorithm = "MD5";
+        } else if (SignUtils.SIGN_VERSION_HMAC_SHA256.equals(signVersion)) {
+            algorithm = "SHA-256";
+        } else {
+            return null;
         }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("不支持的摘要算法: " + algorithm, e);
+        }
+    }
 
-        return interceptResponse(exchange, chain, interfaceInfo.getId(), dbUser.getId());
+    /**
+     * 校验签名，请求体已写入摘要
+     */
+    private boolean verifySign(ServerHttpRequest request, String signVersion, String sign, String secretKey,
+                               MessageDigest bodyDigest, String timestamp, String nonce) {
+        String serverSign;
+        if (SignUtils.SIGN_VERSION_HMAC_SHA256.equals(signVersion)) {
+            serverSign = SignUtils.genSignV2(secretKey, request.getMethod().name(), request.getPath().value(),
+                    SignUtils.canonicalQuery(request.getQueryParams()), timestamp, nonce,
+                    SignUtils.toHex(bodyDigest.digest()));
+        } else {
+            // 旧版签名：MD5(body + "." + secretKey)
+            bodyDigest.update((byte) '.');
+            bodyDigest.update(secretKey.getBytes(StandardCharsets.UTF_8));
+            serverSign = SignUtils.toHex(bodyDigest.digest());
+        }
+        // 常量时间比较，避免通过响应时间猜测签名
+        return MessageDigest.isEqual(serverSign.getBytes(StandardCharsets.UTF_8), sign.getBytes(StandardCharsets.UTF_8));
     }
 
     /**
      * 拦截响应，获取接口返回值并执行后续处理
      */
-    private Mono<Void> interceptResponse(ServerWebExchange exchange, GatewayFilterChain chain, long interfaceInfoId, long userId) {
+    private Mono<Void> interceptResponse(ServerWebExchange exchange, GatewayFilterChain chain,
+                                         InterfaceInfo interfaceInfo, long userId, AsyncEntry upstreamEntry,
+                                         String responseCacheKey) {
+        long interfaceInfoId = interfaceInfo.getId();
+        ServerHttpResponse originalResponse = exchange.getResponse();
+        // 每个请求只结算一次：成功则异步记账，否则退还预扣的调用次数；只有上游故障计入接口资源的失败统计
+        AtomicBoolean settled = new AtomicBoolean(false);
+        Consumer<MeteredResponseDecorator.Outcome> settle = outcome -> {
+            if (!settled.compareAndSet(false, true)) {
+                return;
+            }
+            Settlement settlement = settlement(outcome, originalResponse.getStatusCode());
+            if (settlement == Settlement.BILL) {
+                billingService.record(userId, interfaceInfoId);
+            } else {
+                quotaService.release(userId, interfaceInfoId);
+            }
+            if (settlement == Settlement.REFUND_UPSTREAM_FAILURE) {
+                Tracer.traceEntry(UPSTREAM_FAILURE, upstreamEntry);
+            }
+            upstreamEntry.exit();
+        };
         try {
-            ServerHttpResponse originalResponse = exchange.getResponse();
-            DataBufferFactory bufferFactory = originalResponse.bufferFactory();
-
-            // 包装响应，拦截响应体
-            ServerHttpResponseDecorator decoratedResponse = new ServerHttpResponseDecorator(originalResponse) {
-                @Override
-                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
-                    if (body instanceof Flux<? extends DataBuffer> fluxBody) {
-                        return super.writeWith(fluxBody.map(dataBuffer -> {
-                            // 读取响应体内容
-                            byte[] content = new byte[dataBuffer.readableByteCount()];
-                            dataBuffer.read(content);
-                            DataBufferUtils.release(dataBuffer);
-                            // 获取响应内容
-                            String responseBody = new String(content, StandardCharsets.UTF_8);
-                            log.info("接口返回值：{}", responseBody);
-                            // 扣减调用次数和余额
-                            innerUserInterfaceInfoService.invokeCountAndDeductBalance(interfaceInfoId, userId);
-                            // 重新包装响应体
-                            return bufferFactory.wrap(content);
-                        }));
-                    }
-                    return super.writeWith(body);
-                }
-            };
+            // 包装响应：响应体原样透传，只统计字节数和完成信号用于结算
+            ServerHttpResponse decoratedResponse = new MeteredResponseDecorator(originalResponse,
+                    samplePrefixLimit(), (outcome, bytes) -> settle.accept(outcome));
+            // 可缓存的接口在未命中时记录上游响应
+            if (responseCacheKey != null) {
+                decoratedResponse = responseCache.decorate(decoratedResponse, responseCacheKey,
+                        interfaceInfo.getCacheTtl());
+            }
 
             // 使用包装后的响应
             ServerWebExchange mutatedExchange = exchange.mutate()
                     .response(decoratedResponse)
                     .build();
 
-            return chain.filter(mutatedExchange);
+            // 转发失败（连接失败、超时）以 ON_ERROR 结束，客户端断开以 CANCEL 结束
+            return chain.filter(mutatedExchange)
+                    .doFinally(signalType -> settle.accept(switch (signalType) {
+                        case ON_COMPLETE -> MeteredResponseDecorator.Outcome.COMPLETED;
+                        case CANCEL -> MeteredResponseDecorator.Outcome.CLIENT_ABORTED;
+                        default -> MeteredResponseDecorator.Outcome.UPSTREAM_ERROR;
+                    }));
         } catch (Exception e) {
+            // 网关自身异常，与上游无关：只退还次数，不计入熔断统计
             log.error("网关处理响应异常", e);
+            if (settled.compareAndSet(false, true)) {
+                quotaService.release(userId, interfaceInfoId);
+                upstreamEntry.exit();
+            }
             return chain.filter(exchange);
         }
     }
 
+    /**
+     * 结算方式
+     */
+    private enum Settlement {
+
+        /**
+         * 计费
+         */
+        BILL,
+
+        /**
+         * 退还调用次数
+         */
+        REFUND,
+
+        /**
+         * 退还调用次数，并计入接口资源的失败统计（参与熔断）
+         */
+        REFUND_UPSTREAM_FAILURE
+    }
+
+    /**
+     * 按响应体写出结果和状态码决定结算方式
+     * <p>
+     * 2xx 计费；5xx、上游异常和超时退还并计入失败统计；4xx 是调用方的问题，退还但不计入。
+     * 客户端中途断开不计入失败统计：上游已返回 2xx 时调用已经完成，照常计费，否则退还。
+     */
+    private Settlement settlement(MeteredResponseDecorator.Outcome outcome, HttpStatusCode statusCode) {
+        return switch (outcome) {
+            case COMPLETED -> {
+                if (isSuccessful(statusCode)) {
+                    yield Settlement.BILL;
+                }
+                yield statusCode == null || statusCode.is5xxServerError()
+                        ? Settlement.REFUND_UPSTREAM_FAILURE : Settlement.REFUND;
+            }
+            case CLIENT_ABORTED -> isSuccessful(statusCode) ? Settlement.BILL : Settlement.REFUND;
+            case UPSTREAM_ERROR -> Settlement.REFUND_UPSTREAM_FAILURE;
+        };
+    }
+
+    /**
+     * 按采样比例决定本次请求记录的响应体前缀长度，未命中采样或未开启 DEBUG 时为 0
+     */
+    private int samplePrefixLimit() {
+        if (!log.isDebugEnabled() || responseLogConfig.getSampleRate() <= 0) {
+            return 0;
+        }
+        if (ThreadLocalRandom.current().nextDouble() >= responseLogConfig.getSampleRate()) {
+            return 0;
+        }
+        return responseLogConfig.getMaxPrefixBytes();
+    }
+
+    private boolean isSuccessful(HttpStatusCode statusCode) {
+        return statusCode != null && statusCode.is2xxSuccessful();
+    }
+
     @Override
     public int getOrder() {
         return -1;
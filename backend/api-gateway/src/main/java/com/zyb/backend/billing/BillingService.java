@@ -0,0 +1,207 @@
+package com.zyb.backend.billing;
+
+import com.zyb.apiCommon.model.dto.InvokeCountBatchResult;
+import com.zyb.apiCommon.model.dto.InvokeCountDelta;
+import com.zyb.apiCommon.service.InnerUserInterfaceInfoService;
+import com.zyb.backend.config.BillingConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 异步批量计费
+ * <p>
+ * 请求线程只负责把调用事件放入有界队列，由单独的刷新线程按 (userId, interfaceInfoId) 合并后批量提交，
+ * 响应延迟不再依赖数据库写入。
+ * <p>
+ * 每个批次带固定的批次 id，失败重试时 id 不变，服务端据此去重，RPC 超时但已提交的批次不会重复记账。
+ * 服务端跳过的不合法增量不再重试；同一批次连续失败达到上限后写入死信日志并丢弃。
+ */
+@Slf4j
+@Component
+public class BillingService {
+
+    @DubboReference
+    private InnerUserInterfaceInfoService innerUserInterfaceInfoService;
+
+    @Resource
+    private BillingConfig billingConfig;
+
+    private BlockingQueue<InvokeEvent> queue;
+
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * 已合并但尚未分批的增量，只在刷新线程中访问
+     */
+    private final Map<InvokeEvent, InvokeCountDelta> pending = new LinkedHashMap<>();
+
+    /**
+     * 已分批、等待提交或重试的批次，只在刷新线程中访问
+     */
+    private PendingBatch currentBatch;
+
+    private final AtomicBoolean flushTriggered = new AtomicBoolean(false);
+
+    private final LongAdder droppedCount = new LongAdder();
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    private final LongAdder deadLetterCount = new LongAdder();
+
+    /**
+     * 待提交的批次
+     */
+    private static final class PendingBatch {
+
+        private final String batchId = UUID.randomUUID().toString();
+
+        private final List<InvokeCountDelta> deltas;
+
+        private int attempts;
+
+        private PendingBatch(List<InvokeCountDelta> deltas) {
+            this.deltas = deltas;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(billingConfig.getQueueCapacity());
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-billing-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = billingConfig.getFlushIntervalMs();
+        flushExecutor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        flushExecutor.shutdown();
+        flushExecutor.awaitTermination(5, TimeUnit.SECONDS);
+        // 停机前把剩余的事件提交掉
+        flush();
+        if (currentBatch != null || !pending.isEmpty()) {
+            log.error("网关停机时仍有{}条计费增量未能提交",
+                    pending.size() + (currentBatch == null ? 0 : currentBatch.deltas.size()));
+        }
+    }
+
+    /**
+     * 记录一次调用，不阻塞调用方
+     */
+    public void record(long userId, long interfaceInfoId) {
+        if (!queue.offer(new InvokeEvent(userId, interfaceInfoId))) {
+            droppedCount.increment();
+            log.warn("计费队列已满，丢弃计费事件，userId: {}, interfaceId: {}", userId, interfaceInfoId);
+        }
+        if (queue.size() >= billingConfig.getBatchSize() && flushTriggered.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flush);
+            } catch (Exception e) {
+                flushTriggered.set(false);
+            }
+        }
+    }
+
+    /**
+     * 获取计费统计信息
+     */
+    public String getStats() {
+        return String.format("计费队列积压: %d, 待提交增量: %d, 丢弃事件: %d, 服务端跳过增量: %d, 死信增量: %d",
+                queue.size(), pending.size(), droppedCount.sum(), rejectedCount.sum(), deadLetterCount.sum());
+    }
+
+    private void flush() {
+        flushTriggered.set(false);
+        try {
+            List<InvokeEvent> drained = new ArrayList<>(billingConfig.getBatchSize());
+            while (queue.drainTo(drained, billingConfig.getBatchSize()) > 0) {
+                for (InvokeEvent event : drained) {
+                    InvokeCountDelta delta = pending.computeIfAbsent(event,
+                            e -> new InvokeCountDelta(e.userId(), e.interfaceInfoId(), 0));
+                    delta.setCount(delta.getCount() + 1);
+                }
+                drained.clear();
+            }
+            submitPending();
+        } catch (Throwable e) {
+            // 定时任务抛出异常会被取消调度，这里必须兜住
+            log.error("计费刷新异常", e);
+        }
+    }
+
+    /**
+     * 按批次提交已合并的增量，失败时保留当前批次（批次 id 不变）等待下次重试
+     */
+    private void submitPending() {
+        while (currentBatch != null || !pending.isEmpty()) {
+            if (currentBatch == null) {
+                currentBatch = nextBatch();
+            }
+            PendingBatch batch = currentBatch;
+            batch.attempts++;
+            InvokeCountBatchResult result;
+            try {
+                result = innerUserInterfaceInfoService.batchInvokeCount(batch.batchId, batch.deltas);
+            } catch (Exception e) {
+                if (batch.attempts >= billingConfig.getMaxAttempts()) {
+                    deadLetter(batch, e);
+                    currentBatch = null;
+                    continue;
+                }
+                log.error("批量计费提交失败（第{}次），批次{}共{}条增量将在下次刷新时重试",
+                        batch.attempts, batch.batchId, batch.deltas.size(), e);
+                return;
+            }
+            currentBatch = null;
+            if (result != null && result.getRejected() != null && !result.getRejected().isEmpty()) {
+                rejectedCount.add(result.getRejected().size());
+                log.warn("批量计费批次{}中{}条增量被跳过: {}", batch.batchId, result.getRejected().size(),
+                        result.getRejected());
+            }
+            log.debug("批量计费提交成功，批次{}共{}条增量{}", batch.batchId, batch.deltas.size(),
+                    result != null && result.isDuplicate() ? "（重复提交，已去重）" : "");
+        }
+    }
+
+    /**
+     * 从已合并的增量中取出一个批次
+     */
+    private PendingBatch nextBatch() {
+        List<InvokeCountDelta> deltas = new ArrayList<>(billingConfig.getBatchSize());
+        Iterator<InvokeCountDelta> iterator = pending.values().iterator();
+        while (iterator.hasNext() && deltas.size() < billingConfig.getBatchSize()) {
+            deltas.add(iterator.next());
+            iterator.remove();
+        }
+        return new PendingBatch(deltas);
+    }
+
+    /**
+     * 多次提交仍失败的批次写入死信日志后丢弃，需人工核对后补账
+     */
+    private void deadLetter(PendingBatch batch, Exception e) {
+        deadLetterCount.add(batch.deltas.size());
+        log.error("批量计费批次{}连续{}次提交失败，转入死信并丢弃: {}", batch.batchId, batch.attempts, batch.deltas, e);
+    }
+}
@@ -0,0 +1,7 @@
+package com.zyb.backend.billing;
+
+/**
+ * 一次完成的接口调用（同时作为批量合并的 key）
+ */
+public record InvokeEvent(long userId, long interfaceInfoId) {
+}
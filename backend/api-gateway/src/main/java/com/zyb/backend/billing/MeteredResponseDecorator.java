@@ -0,0 +1,144 @@
+package com.zyb.backend.billing;
+
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 计量响应装饰器
+ * <p>
+ * 响应体 DataBuffer 原样透传，不做拷贝和解码，只统计字节数并监听完成/异常信号用于计费结算；
+ * 开启采样时额外记录一段长度受限的响应体前缀用于 DEBUG 日志。
+ * 上游响应体出错与客户端断开分开上报：前者是上游故障，后者与上游无关。
+ */
+@Slf4j
+public class MeteredResponseDecorator extends ServerHttpResponseDecorator {
+
+    /**
+     * 响应体写出结果
+     */
+    public enum Outcome {
+
+        /**
+         * 响应体已完整写出（状态码由结算方自行判断）
+         */
+        COMPLETED,
+
+        /**
+         * 读取上游响应体失败
+         */
+        UPSTREAM_ERROR,
+
+        /**
+         * 客户端断开：写出失败或取消订阅
+         */
+        CLIENT_ABORTED
+    }
+
+    /**
+     * 响应结算回调
+     */
+    @FunctionalInterface
+    public interface SettleListener {
+
+        /**
+         * @param outcome 响应体写出结果
+         * @param bytes   已写出的响应体字节数
+         */
+        void onSettle(Outcome outcome, long bytes);
+    }
+
+    private final SettleListener settleListener;
+
+    private final int prefixLimit;
+
+    private final AtomicLong writtenBytes = new AtomicLong();
+
+    private final StringBuilder prefix;
+
+    /**
+     * @param prefixLimit 采样记录的响应体前缀字节数，0 表示不采样
+     */
+    public MeteredResponseDecorator(ServerHttpResponse delegate, int prefixLimit, SettleListener settleListener) {
+        super(delegate);
+        this.settleListener = settleListener;
+        this.prefixLimit = prefixLimit;
+        this.prefix = prefixLimit > 0 ? new StringBuilder() : null;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(observe(Flux.from(body)))
+                .doOnError(this::onClientAbort);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return super.writeAndFlushWith(Flux.from(body).map(this::observeChunk)
+                        .doOnComplete(this::onComplete)
+                        .doOnError(this::onUpstreamError)
+                        .doOnCancel(this::onCancel))
+                .doOnError(this::onClientAbort);
+    }
+
+    /**
+     * 已写出的响应体字节数
+     */
+    public long getWrittenBytes() {
+        return writtenBytes.get();
+    }
+
+    private Flux<? extends DataBuffer> observe(Flux<? extends DataBuffer> body) {
+        return body.doOnNext(this::count)
+                .doOnComplete(this::onComplete)
+                .doOnError(this::onUpstreamError)
+                .doOnCancel(this::onCancel);
+    }
+
+    private Publisher<? extends DataBuffer> observeChunk(Publisher<? extends DataBuffer> chunk) {
+        return Flux.from(chunk).doOnNext(this::count);
+    }
+
+    private void count(DataBuffer dataBuffer) {
+        int readable = dataBuffer.readableByteCount();
+        long before = writtenBytes.getAndAdd(readable);
+        if (prefix != null && before < prefixLimit) {
+            int length = (int) Math.min(readable, prefixLimit - before);
+            // 按索引读取，不移动读指针
+            prefix.append(dataBuffer.toString(dataBuffer.readPosition(), length, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void onComplete() {
+        HttpStatusCode statusCode = getStatusCode();
+        if (prefix != null) {
+            log.debug("接口返回值（采样，共{}字节，状态{}）：{}", writtenBytes.get(), statusCode, prefix);
+        }
+        settleListener.onSettle(Outcome.COMPLETED, writtenBytes.get());
+    }
+
+    /**
+     * 响应体发布者出错：上游连接中断或读取失败，先于写出异常触发
+     */
+    private void onUpstreamError(Throwable e) {
+        log.warn("上游响应体读取异常，已写出{}字节: {}", writtenBytes.get(), e.getMessage());
+        settleListener.onSettle(Outcome.UPSTREAM_ERROR, writtenBytes.get());
+    }
+
+    private void onClientAbort(Throwable e) {
+        log.debug("响应写出失败，客户端可能已断开，已写出{}字节: {}", writtenBytes.get(), e.getMessage());
+        settleListener.onSettle(Outcome.CLIENT_ABORTED, writtenBytes.get());
+    }
+
+    private void onCancel() {
+        settleListener.onSettle(Outcome.CLIENT_ABORTED, writtenBytes.get());
+    }
+}
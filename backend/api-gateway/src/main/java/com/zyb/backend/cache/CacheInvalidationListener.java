@@ -0,0 +1,77 @@
+package com.zyb.backend.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyb.apiCommon.constant.CacheConstant;
+import com.zyb.apiCommon.model.dto.CacheInvalidationEvent;
+import com.zyb.backend.quota.QuotaService;
+import com.zyb.backend.route.RouteTable;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 缓存失效事件监听
+ * <p>
+ * 后台修改用户、接口、用户接口关系后会在 Redis 频道上发布事件，每个网关节点收到后清理对应缓存。
+ */
+@Slf4j
+@Component
+public class CacheInvalidationListener implements MessageListener {
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Resource
+    private CacheService cacheService;
+
+    @Resource
+    private QuotaService quotaService;
+
+    @Resource
+    private RouteTable routeTable;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @PostConstruct
+    public void subscribe() {
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(CacheConstant.CACHE_INVALIDATION_CHANNEL));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        try {
+            CacheInvalidationEvent event = objectMapper.readValue(body, CacheInvalidationEvent.class);
+            log.debug("收到缓存失效事件: {}", event);
+            handle(event);
+        } catch (Exception e) {
+            log.error("处理缓存失效事件失败: {}", body, e);
+        }
+    }
+
+    private void handle(CacheInvalidationEvent event) {
+        if (event.getType() == null) {
+            return;
+        }
+        switch (event.getType()) {
+            case USER -> cacheService.evictUser(event.getAccessKey());
+            case INTERFACE -> {
+                cacheService.evictInterfaceInfo(event.getUrl(), event.getMethod());
+                routeTable.requestReload();
+            }
+            case USER_INTERFACE -> {
+                cacheService.evictUserInterfaceInfo(event.getUserId(), event.getInterfaceInfoId());
+                // 调用次数被后台修改，删除计数器让下次调用从数据库重新加载
+                quotaService.evict(event.getUserId(), event.getInterfaceInfoId());
+            }
+        }
+    }
+}
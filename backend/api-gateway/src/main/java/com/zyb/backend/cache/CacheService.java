@@ -1,15 +1,17 @@
 package com.zyb.backend.cache;
 
 import com.zyb.apiCommon.model.entity.InterfaceInfo;
-import com.zyb.apiCommon.model.entity.User;
 import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
+import com.zyb.apiCommon.model.vo.GatewayAuthVO;
 import com.zyb.apiCommon.service.InnerInterfaceInfoService;
 import com.zyb.apiCommon.service.InnerUserInterfaceInfoService;
 import com.zyb.apiCommon.service.InnerUserService;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboReference;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 
 /**
@@ -32,41 +34,82 @@ public class CacheService {
     private InnerUserInterfaceInfoService innerUserInterfaceInfoService;
 
     // 缓存key前缀
-    private static final String USER_KEY_PREFIX = "gateway:user:";
+    private static final String USER_KEY_PREFIX = "gateway:user_auth:";
     private static final String INTERFACE_KEY_PREFIX = "gateway:interface:";
     private static final String USER_INTERFACE_KEY_PREFIX = "gateway:user_interface:";
 
     /**
-     * 根据accessKey获取用户信息（带缓存）
+     * 注册各缓存类型的数据源加载函数，缓存未命中和后台刷新时都会调用
      */
-    public User getUserByAccessKey(String accessKey) {
-        String cacheKey = USER_KEY_PREFIX + accessKey;
-        return multiLevelCache.get(cacheKey, User.class, MultiLevelCache.CacheType.USER, () -> {
-            log.debug("从数据库查询用户: {}", accessKey);
-            return innerUserService.getDbUser(accessKey);
+    @PostConstruct
+    public void registerLoaders() {
+        multiLevelCache.registerLoader(MultiLevelCache.CacheType.USER, GatewayAuthVO.class, cacheKey -> {
+            String accessKey = cacheKey.substring(USER_KEY_PREFIX.length());
+            log.debug("从数据库查询用户鉴权信息: {}", accessKey);
+            return innerUserService.getGatewayAuth(accessKey);
         });
+        multiLevelCache.registerLoader(MultiLevelCache.CacheType.INTERFACE, InterfaceInfo.class, cacheKey -> {
+            // url 本身可能带端口，method 在最后一个冒号之后
+            String id = cacheKey.substring(INTERFACE_KEY_PREFIX.length());
+            int separator = id.lastIndexOf(':');
+            String url = id.substring(0, separator);
+            String method = id.substring(separator + 1);
+            log.debug("从数据库查询接口: {} {}", method, url);
+            return innerInterfaceInfoService.getInterfaceInfo(url, method);
+        });
+        multiLevelCache.registerLoader(MultiLevelCache.CacheType.USER_INTERFACE, UserInterfaceInfo.class, cacheKey -> {
+            String[] ids = cacheKey.substring(USER_INTERFACE_KEY_PREFIX.length()).split(":");
+            long userId = Long.parseLong(ids[0]);
+            long interfaceInfoId = Long.parseLong(ids[1]);
+            log.debug("从数据库查询用户接口信息: userId={}, interfaceId={}", userId, interfaceInfoId);
+            return innerUserInterfaceInfoService.checkUserInterface(interfaceInfoId, userId);
+        });
+    }
+
+    /**
+     * 根据accessKey获取用户鉴权信息（带缓存）
+     */
+    public Mono<GatewayAuthVO> getGatewayAuth(String accessKey) {
+        return multiLevelCache.getAsync(USER_KEY_PREFIX + accessKey, GatewayAuthVO.class,
+                MultiLevelCache.CacheType.USER);
     }
 
     /**
      * 根据url和method获取接口信息（带缓存）
      */
-    public InterfaceInfo getInterfaceInfo(String url, String method) {
-        String cacheKey = INTERFACE_KEY_PREFIX + url + ":" + method;
-        return multiLevelCache.get(cacheKey, InterfaceInfo.class, MultiLevelCache.CacheType.INTERFACE, () -> {
-            log.debug("从数据库查询接口: {} {}", method, url);
-            return innerInterfaceInfoService.getInterfaceInfo(url, method);
-        });
+    public Mono<InterfaceInfo> getInterfaceInfo(String url, String method) {
+        return multiLevelCache.getAsync(INTERFACE_KEY_PREFIX + url + ":" + method, InterfaceInfo.class,
+                MultiLevelCache.CacheType.INTERFACE);
     }
 
     /**
      * 获取用户接口调用信息（带缓存）
      */
-    public UserInterfaceInfo getUserInterfaceInfo(long userId, long interfaceInfoId) {
-        String cacheKey = USER_INTERFACE_KEY_PREFIX + userId + ":" + interfaceInfoId;
-        return multiLevelCache.get(cacheKey, UserInterfaceInfo.class, MultiLevelCache.CacheType.USER_INTERFACE, () -> {
-            log.debug("从数据库查询用户接口信息: userId={}, interfaceId={}", userId, interfaceInfoId);
-            return innerUserInterfaceInfoService.checkUserInterface(interfaceInfoId, userId);
-        });
+    public Mono<UserInterfaceInfo> getUserInterfaceInfo(long userId, long interfaceInfoId) {
+        return multiLevelCache.getAsync(USER_INTERFACE_KEY_PREFIX + userId + ":" + interfaceInfoId,
+                UserInterfaceInfo.class, MultiLevelCache.CacheType.USER_INTERFACE);
+    }
+
+    /**
+     * 用户信息变更后清理缓存
+     */
+    public void evictUser(String accessKey) {
+        multiLevelCache.evict(USER_KEY_PREFIX + accessKey, MultiLevelCache.CacheType.USER);
+    }
+
+    /**
+     * 接口信息变更后清理缓存
+     */
+    public void evictInterfaceInfo(String url, String method) {
+        multiLevelCache.evict(INTERFACE_KEY_PREFIX + url + ":" + method, MultiLevelCache.CacheType.INTERFACE);
+    }
+
+    /**
+     * 用户接口关系变更后清理缓存
+     */
+    public void evictUserInterfaceInfo(long userId, long interfaceInfoId) {
+        multiLevelCache.evict(USER_INTERFACE_KEY_PREFIX + userId + ":" + interfaceInfoId,
+                MultiLevelCache.CacheType.USER_INTERFACE);
     }
 
     /**
@@ -0,0 +1,39 @@
+package com.zyb.backend.cache;
+
+import lombok.Data;
+
+import java.io.Serializable;
+
+/**
+ * 网关缓存的接口响应
+ */
+@Data
+public class CachedResponse implements Serializable {
+
+    /**
+     * 响应状态码
+     */
+    private int status;
+
+    /**
+     * Content-Type
+     */
+    private String contentType;
+
+    /**
+     * Content-Encoding
+     */
+    private String contentEncoding;
+
+    /**
+     * 响应体
+     */
+    private byte[] body;
+
+    /**
+     * 过期时间（毫秒时间戳）
+     */
+    private long expireAt;
+
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,78 @@
+package com.zyb.backend.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.function.Consumer;
+
+/**
+ * 缓存响应装饰器
+ * <p>
+ * 响应体原样透传，同时复制一份；响应为 200、未声明不可缓存且不超过大小上限时交给回调写入缓存。
+ * 接口的错误响应以非 2xx 状态码返回，不会被缓存。分块流式写出的响应不缓存。
+ */
+class CachingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private final int maxBodyBytes;
+
+    private final Consumer<CachedResponse> cacheWriter;
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+    private boolean overflow;
+
+    CachingResponseDecorator(ServerHttpResponse delegate, int maxBodyBytes, Consumer<CachedResponse> cacheWriter) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.cacheWriter = cacheWriter;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        return super.writeWith(Flux.from(body)
+                .doOnNext(this::copy)
+                .doOnComplete(this::onComplete));
+    }
+
+    private void copy(DataBuffer dataBuffer) {
+        if (overflow) {
+            return;
+        }
+        int readable = dataBuffer.readableByteCount();
+        if (body.size() + readable > maxBodyBytes) {
+            overflow = true;
+            body.reset();
+            return;
+        }
+        byte[] chunk = new byte[readable];
+        // 按索引复制，不移动读指针
+        dataBuffer.toByteBuffer(dataBuffer.readPosition(), ByteBuffer.wrap(chunk), 0, readable);
+        body.writeBytes(chunk);
+    }
+
+    private void onComplete() {
+        if (overflow || !HttpStatus.OK.equals(getStatusCode())) {
+            return;
+        }
+        HttpHeaders headers = getHeaders();
+        String cacheControl = headers.getCacheControl();
+        if (headers.containsKey(HttpHeaders.SET_COOKIE)
+                || (cacheControl != null && (cacheControl.contains("no-store") || cacheControl.contains("private")))) {
+            return;
+        }
+        CachedResponse cachedResponse = new CachedResponse();
+        cachedResponse.setStatus(HttpStatus.OK.value());
+        cachedResponse.setContentType(headers.getFirst(HttpHeaders.CONTENT_TYPE));
+        cachedResponse.setContentEncoding(headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        cachedResponse.setBody(body.toByteArray());
+        cacheWriter.accept(cachedResponse);
+    }
+}
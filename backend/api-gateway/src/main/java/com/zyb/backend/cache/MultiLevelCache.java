@@ -1,47 +1,84 @@
 package com.zyb.backend.cache;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.zyb.backend.cache.codec.CacheSerializer;
+import com.zyb.backend.config.CacheConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Supplier;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 /**
  * 多级缓存管理器
+ * <p>
+ * L1 为各缓存类型独立的 Caffeine 缓存（写入后过期，可选后台刷新），L2 为 Redis，L3 为通过
+ * {@link #registerLoader} 注册的数据源加载函数。
  */
 @Component
 @Slf4j
 public class MultiLevelCache {
 
     @Resource
-    private StringRedisTemplate stringRedisTemplate;
+    private RedisTemplate<String, byte[]> byteRedisTemplate;
+
+    @Resource
+    private CacheConfig cacheConfig;
+
+    @Resource
+    private CacheSerializer cacheSerializer;
+
+    /**
+     * Redis 中表示“数据不存在”的占位值
+     */
+    private static final byte[] NULL_PLACEHOLDER = "__NULL__".getBytes(StandardCharsets.UTF_8);
 
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    // L1缓存：按缓存类型区分，策略来自配置
+    private final Map<CacheType, LoadingCache<String, Object>> localCaches = new EnumMap<>(CacheType.class);
 
-    // L1缓存：用户缓存，1分钟未访问过期，最大500个
-    private final Cache<String, Object> userCache = Caffeine.newBuilder()
-            .maximumSize(500)
-            .expireAfterAccess(1, TimeUnit.MINUTES)
-            .build();
+    // 各缓存类型的数据源加载函数（L3）
+    private final Map<CacheType, Loader<?>> loaders = new ConcurrentHashMap<>();
 
-    // L1缓存：接口缓存，2分钟未访问过期，最大300个
-    private final Cache<String, Object> interfaceCache = Caffeine.newBuilder()
-            .maximumSize(300)
-            .expireAfterAccess(2, TimeUnit.MINUTES)
-            .build();
+    // 负缓存：数据库中不存在的 key，短时间内直接返回 null，避免无效 accessKey 反复打到数据库
+    private Cache<String, Boolean> negativeCache;
 
-    // L1缓存：用户接口关系缓存，4分钟未访问过期，最大1000个
-    private final Cache<String, Object> userInterfaceCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterAccess(4, TimeUnit.MINUTES)
-            .build();
+    // 后台刷新线程池，避免阻塞式的 Dubbo 调用占用公共线程池
+    private ExecutorService refreshExecutor;
+
+    // 未命中时的加载线程：L2/L3 都是阻塞调用，不能在 Netty 事件循环线程上执行
+    private final Executor loadExecutor = runnable -> Schedulers.boundedElastic().schedule(runnable);
+
+    // 正在加载中的 key，同一 key 的并发未命中只加载一次
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlightLoads = new ConcurrentHashMap<>();
+
+    // 合并加载命中次数（等待其他请求的加载结果）
+    private final LongAdder coalescedHits = new LongAdder();
+
+    // 负缓存命中次数
+    private final LongAdder negativeHits = new LongAdder();
+
+    // 后台刷新次数
+    private final LongAdder refreshCount = new LongAdder();
 
     /**
      * 缓存类型枚举
@@ -51,28 +88,109 @@ public class MultiLevelCache {
     }
 
     /**
-     * 获取缓存数据
+     * 数据源加载函数及其返回类型
      */
-    public <T> T get(String key, Class<T> type, CacheType cacheType, Supplier<T> supplier) {
+    private record Loader<T>(Class<T> type, Function<String, T> function) {
+    }
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        refreshExecutor = Executors.newFixedThreadPool(cacheConfig.getRefreshThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "gateway-cache-refresh-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (CacheType cacheType : CacheType.values()) {
+            localCaches.put(cacheType, buildLocalCache(cacheType, cacheConfig.getPolicy(cacheType)));
+        }
+        negativeCache = Caffeine.newBuilder()
+                .maximumSize(cacheConfig.getNegativeMaximumSize())
+                .expireAfterWrite(cacheConfig.getNegativeTtl())
+                .build();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        refreshExecutor.shutdownNow();
+    }
+
+    /**
+     * 注册缓存类型对应的数据源加载函数，加载函数接收完整的缓存 key
+     */
+    public <T> void registerLoader(CacheType cacheType, Class<T> type, Function<String, T> loader) {
+        loaders.put(cacheType, new Loader<>(type, loader));
+    }
+
+    /**
+     * 异步获取缓存数据，数据不存在时为空
+     * <p>
+     * L1 和负缓存命中时直接返回；未命中时在加载线程上查询 L2、L3，同一 key 的并发请求共享同一个加载结果，
+     * 调用线程（Netty 事件循环）不阻塞、不等待。
+     */
+    public <T> Mono<T> getAsync(String key, Class<T> type, CacheType cacheType) {
         // 根据缓存类型选择对应的本地缓存
         Cache<String, Object> localCache = getLocalCache(cacheType);
 
-        // L1: 先查本地缓存
+        // L1: 先查本地缓存（到达刷新时间的条目会在后台刷新，本次仍返回旧值）
         Object localValue = localCache.getIfPresent(key);
         if (localValue != null) {
             log.debug("命中L1缓存[{}]: {}", cacheType, key);
-            return type.cast(localValue);
+            return Mono.just(type.cast(localValue));
+        }
+        if (negativeCache.getIfPresent(key) != null) {
+            negativeHits.increment();
+            log.debug("命中负缓存[{}]: {}", cacheType, key);
+            return Mono.empty();
+        }
+
+        // 同一 key 只有一个请求负责加载，其余请求订阅同一结果
+        CompletableFuture<Object> loadFuture = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = inFlightLoads.putIfAbsent(key, loadFuture);
+        if (inFlight != null) {
+            coalescedHits.increment();
+            log.debug("合并加载[{}]: {}", cacheType, key);
+            return Mono.fromFuture(inFlight.copy()).map(type::cast);
+        }
+        loadExecutor.execute(() -> completeLoad(key, cacheType, loadFuture));
+        return Mono.fromFuture(loadFuture.copy()).map(type::cast);
+    }
+
+    /**
+     * 执行一次加载并把结果交给所有等待的请求
+     */
+    private void completeLoad(String key, CacheType cacheType, CompletableFuture<Object> loadFuture) {
+        try {
+            Object data = load(key, cacheType);
+            if (data != null) {
+                getLocalCache(cacheType).put(key, data);
+            }
+            loadFuture.complete(data);
+        } catch (Throwable e) {
+            loadFuture.completeExceptionally(e);
+        } finally {
+            inFlightLoads.remove(key, loadFuture);
         }
+    }
+
+    /**
+     * L1 未命中时依次查询 L2、L3
+     */
+    private Object load(String key, CacheType cacheType) {
+        Loader<?> loader = getLoader(cacheType);
 
         // L2: 查Redis缓存
         try {
-            String redisValue = stringRedisTemplate.opsForValue().get(key);
+            byte[] redisValue = byteRedisTemplate.opsForValue().get(key);
+            if (Arrays.equals(NULL_PLACEHOLDER, redisValue)) {
+                negativeHits.increment();
+                log.debug("命中L2负缓存[{}]: {}", cacheType, key);
+                negativeCache.put(key, Boolean.TRUE);
+                return null;
+            }
             if (redisValue != null) {
                 log.debug("命中L2缓存[{}]: {}", cacheType, key);
-                T data = objectMapper.readValue(redisValue, type);
-                // 回写L1缓存
-                localCache.put(key, data);
-                return data;
+                return cacheSerializer.deserialize(redisValue, loader.type());
             }
         } catch (Exception e) {
             log.warn("Redis缓存读取失败: {}", e.getMessage());
@@ -80,23 +198,71 @@ public class MultiLevelCache {
 
         // L3: 查数据库
         log.debug("缓存未命中，查询数据库[{}]: {}", cacheType, key);
-        T data = supplier.get();
-        if (data != null) {
-            // 写入缓存
-            put(key, data, cacheType);
+        return loadFromSource(key, cacheType);
+    }
+
+    /**
+     * 从数据源加载并回写L2
+     */
+    private Object loadFromSource(String key, CacheType cacheType) {
+        Object data = getLoader(cacheType).function().apply(key);
+        if (data == null) {
+            putNull(key);
+            return null;
         }
+        putRedis(key, data, cacheType);
         return data;
     }
 
+    private Loader<?> getLoader(CacheType cacheType) {
+        Loader<?> loader = loaders.get(cacheType);
+        if (loader == null) {
+            throw new IllegalStateException("缓存类型未注册加载函数: " + cacheType);
+        }
+        return loader;
+    }
+
+    /**
+     * 按策略构建本地缓存
+     */
+    private LoadingCache<String, Object> buildLocalCache(CacheType cacheType, CacheConfig.Policy policy) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(policy.getMaximumSize())
+                .expireAfterWrite(policy.getExpireAfterWrite())
+                .executor(refreshExecutor)
+                .recordStats();
+        Duration refreshAfterWrite = policy.getRefreshAfterWrite();
+        if (refreshAfterWrite != null) {
+            if (refreshAfterWrite.compareTo(policy.getExpireAfterWrite()) < 0) {
+                builder.refreshAfterWrite(refreshAfterWrite);
+            } else {
+                log.warn("缓存[{}]的刷新时间{}不小于过期时间{}，不启用后台刷新",
+                        cacheType, refreshAfterWrite, policy.getExpireAfterWrite());
+            }
+        }
+        log.info("初始化L1缓存[{}]: 最大{}条, 写入后{}过期, 刷新间隔{}, L2过期时间{}", cacheType,
+                policy.getMaximumSize(), policy.getExpireAfterWrite(), refreshAfterWrite, policy.getRedisTtl());
+        return builder.build(new CacheLoader<>() {
+            @Override
+            public Object load(String key) {
+                return MultiLevelCache.this.load(key, cacheType);
+            }
+
+            @Override
+            public Object reload(String key, Object oldValue) {
+                // 后台刷新直接回源并回写L2，L2中的数据可能与本地旧值一样旧
+                refreshCount.increment();
+                log.debug("后台刷新L1缓存[{}]: {}", cacheType, key);
+                return loadFromSource(key, cacheType);
+            }
+        });
+    }
+
     /**
      * 根据缓存类型获取对应的本地缓存
      */
     private Cache<String, Object> getLocalCache(CacheType cacheType) {
-        return switch (cacheType) {
-            case USER -> userCache;
-            case INTERFACE -> interfaceCache;
-            case USER_INTERFACE -> userInterfaceCache;
-        };
+        return localCaches.get(cacheType);
     }
 
     /**
@@ -110,50 +276,61 @@ public class MultiLevelCache {
         // 写入L1缓存
         Cache<String, Object> localCache = getLocalCache(cacheType);
         localCache.put(key, value);
+        negativeCache.invalidate(key);
 
-        // 写入L2缓存，根据缓存类型设置不同的过期时间
+        // 写入L2缓存
+        putRedis(key, value, cacheType);
+    }
+
+    /**
+     * 写入L2缓存，根据缓存类型设置不同的过期时间
+     */
+    private void putRedis(String key, Object value, CacheType cacheType) {
         try {
-            String jsonValue = objectMapper.writeValueAsString(value);
-            Duration expireTime = getRedisExpireTime(cacheType);
-            stringRedisTemplate.opsForValue().set(key, jsonValue, expireTime);
+            byte[] data = cacheSerializer.serialize(value);
+            Duration expireTime = cacheConfig.getPolicy(cacheType).getRedisTtl();
+            byteRedisTemplate.opsForValue().set(key, data, expireTime);
             log.debug("写入缓存[{}]: {}, 过期时间: {}", cacheType, key, expireTime);
-        } catch (JsonProcessingException e) {
+        } catch (Exception e) {
             log.warn("Redis缓存写入失败: {}", e.getMessage());
         }
     }
 
     /**
-     * 根据缓存类型获取Redis过期时间
+     * 写入负缓存（L1 + L2），过期时间较短
      */
-    private Duration getRedisExpireTime(CacheType cacheType) {
-        return switch (cacheType) {
-            case USER -> Duration.ofMinutes(5);        // 用户缓存5分钟
-            case INTERFACE -> Duration.ofMinutes(5);   // 接口缓存5分钟
-            case USER_INTERFACE -> Duration.ofMinutes(5); // 用户接口关系缓存5分钟
-        };
+    private void putNull(String key) {
+        negativeCache.put(key, Boolean.TRUE);
+        try {
+            byteRedisTemplate.opsForValue().set(key, NULL_PLACEHOLDER, cacheConfig.getNegativeTtl());
+            log.debug("写入负缓存: {}", key);
+        } catch (Exception e) {
+            log.warn("Redis负缓存写入失败: {}", e.getMessage());
+        }
     }
 
     /**
      * 删除缓存
      */
     public void evict(String key, CacheType cacheType) {
-        Cache<String, Object> localCache = getLocalCache(cacheType);
-        localCache.invalidate(key);
+        // 先删L2再删L1，避免L1重新从L2加载到旧数据
         try {
-            stringRedisTemplate.delete(key);
+            byteRedisTemplate.delete(key);
             log.debug("删除缓存[{}]: {}", cacheType, key);
         } catch (Exception e) {
             log.warn("Redis缓存删除失败: {}", e.getMessage());
         }
+        Cache<String, Object> localCache = getLocalCache(cacheType);
+        localCache.invalidate(key);
+        negativeCache.invalidate(key);
     }
 
     /**
      * 清空所有缓存
      */
     public void clear() {
-        userCache.invalidateAll();
-        interfaceCache.invalidateAll();
-        userInterfaceCache.invalidateAll();
+        localCaches.values().forEach(Cache::invalidateAll);
+        negativeCache.invalidateAll();
         log.info("清空所有本地缓存");
     }
 
@@ -161,17 +338,23 @@ public class MultiLevelCache {
      * 获取缓存统计信息
      */
     public String getStats() {
-        var userStats = userCache.stats();
-        var interfaceStats = interfaceCache.stats();
-        var userInterfaceStats = userInterfaceCache.stats();
+        var userStats = getLocalCache(CacheType.USER).stats();
+        var interfaceStats = getLocalCache(CacheType.INTERFACE).stats();
+        var userInterfaceStats = getLocalCache(CacheType.USER_INTERFACE).stats();
 
         return String.format(
                 "用户缓存 - 命中率: %.2f%%, 大小: %d\n" +
                 "接口缓存 - 命中率: %.2f%%, 大小: %d\n" +
-                "用户接口缓存 - 命中率: %.2f%%, 大小: %d",
-                userStats.hitRate() * 100, userCache.estimatedSize(),
-                interfaceStats.hitRate() * 100, interfaceCache.estimatedSize(),
-                userInterfaceStats.hitRate() * 100, userInterfaceCache.estimatedSize()
+                "用户接口缓存 - 命中率: %.2f%%, 大小: %d\n" +
+                "负缓存 - 命中次数: %d, 大小: %d\n" +
+                "合并加载 - 命中次数: %d, 加载中: %d\n" +
+                "后台刷新 - 次数: %d",
+                userStats.hitRate() * 100, getLocalCache(CacheType.USER).estimatedSize(),
+                interfaceStats.hitRate() * 100, getLocalCache(CacheType.INTERFACE).estimatedSize(),
+                userInterfaceStats.hitRate() * 100, getLocalCache(CacheType.USER_INTERFACE).estimatedSize(),
+                negativeHits.sum(), negativeCache.estimatedSize(),
+                coalescedHits.sum(), inFlightLoads.size(),
+                refreshCount.sum()
         );
     }
 }
@@ -0,0 +1,156 @@
+package com.zyb.backend.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.zyb.apiClientSdk.utils.SignUtils;
+import com.zyb.apiCommon.model.entity.InterfaceInfo;
+import com.zyb.backend.cache.codec.CacheSerializer;
+import com.zyb.backend.config.ResponseCacheConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 网关响应缓存
+ * <p>
+ * 只缓存开启了 cacheable 的 GET 接口，按 method + path + 规范化查询参数缓存 200 响应，
+ * 每条缓存按接口的 cacheTtl 过期。本地使用 Caffeine，开启 redis-enabled 后通过 Redis 在网关实例间共享。
+ */
+@Slf4j
+@Component
+public class ResponseCache {
+
+    /**
+     * 标识响应来自网关缓存的响应头
+     */
+    public static final String CACHE_STATUS_HEADER = "X-Gateway-Cache";
+
+    private static final String RESPONSE_KEY_PREFIX = "gateway:response:";
+
+    @Resource
+    private ResponseCacheConfig responseCacheConfig;
+
+    @Resource
+    private RedisTemplate<String, byte[]> byteRedisTemplate;
+
+    @Resource
+    private ReactiveRedisTemplate<String, byte[]> reactiveByteRedisTemplate;
+
+    @Resource
+    private CacheSerializer cacheSerializer;
+
+    private Cache<String, CachedResponse> localCache;
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumWeight(responseCacheConfig.getMaximumWeightBytes())
+                .weigher((String key, CachedResponse value) -> key.length() + value.getBody().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse value, long currentTime) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse value, long currentTime,
+                                                  long currentDuration) {
+                        return remainingNanos(value);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse value, long currentTime,
+                                                long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 请求是否走响应缓存
+     */
+    public boolean isCacheable(InterfaceInfo interfaceInfo, ServerHttpRequest request) {
+        Integer cacheTtl = interfaceInfo.getCacheTtl();
+        return responseCacheConfig.isEnabled()
+                && Integer.valueOf(1).equals(interfaceInfo.getCacheable())
+                && cacheTtl != null && cacheTtl > 0
+                && HttpMethod.GET.equals(request.getMethod());
+    }
+
+    /**
+     * 缓存 key：method + path + 规范化（排序、编码）后的查询参数，取摘要避免 key 过长
+     */
+    public String key(ServerHttpRequest request) {
+        String target = request.getMethod().name() + " " + request.getPath().value() + "?"
+                + SignUtils.canonicalQuery(request.getQueryParams());
+        return RESPONSE_KEY_PREFIX + SignUtils.sha256Hex(target);
+    }
+
+    /**
+     * 查询缓存，未命中时为空；Redis 读取走响应式客户端，读取失败按未命中处理
+     */
+    public Mono<CachedResponse> get(String key) {
+        CachedResponse cachedResponse = localCache.getIfPresent(key);
+        if (cachedResponse != null || !responseCacheConfig.isRedisEnabled()) {
+            return Mono.justOrEmpty(cachedResponse);
+        }
+        return reactiveByteRedisTemplate.opsForValue().get(key)
+                .flatMap(data -> Mono.fromCallable(() -> cacheSerializer.deserialize(data, CachedResponse.class)))
+                .filter(redisResponse -> redisResponse.getExpireAt() > System.currentTimeMillis())
+                .doOnNext(redisResponse -> localCache.put(key, redisResponse))
+                .onErrorResume(e -> {
+                    log.warn("读取响应缓存失败: {}", key, e);
+                    return Mono.empty();
+                });
+    }
+
+    /**
+     * 写入缓存，Redis 异步写入，失败不影响本次响应
+     */
+    public void put(String key, CachedResponse cachedResponse) {
+        localCache.put(key, cachedResponse);
+        if (!responseCacheConfig.isRedisEnabled()) {
+            return;
+        }
+        Schedulers.boundedElastic().schedule(() -> {
+            long ttlMillis = cachedResponse.getExpireAt() - System.currentTimeMillis();
+            if (ttlMillis <= 0) {
+                return;
+            }
+            try {
+                byteRedisTemplate.opsForValue().set(key, cacheSerializer.serialize(cachedResponse),
+                        Duration.ofMillis(ttlMillis));
+            } catch (Exception e) {
+                log.warn("写入响应缓存失败: {}", key, e);
+            }
+        });
+    }
+
+    /**
+     * 包装响应，上游返回 200 后写入缓存
+     */
+    public ServerHttpResponse decorate(ServerHttpResponse response, String key, int ttlSeconds) {
+        return new CachingResponseDecorator(response, responseCacheConfig.getMaxBodyBytes(), cachedResponse -> {
+            cachedResponse.setExpireAt(System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds));
+            put(key, cachedResponse);
+        });
+    }
+
+    private static long remainingNanos(CachedResponse value) {
+        long remainingMillis = value.getExpireAt() - System.currentTimeMillis();
+        return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+    }
+}
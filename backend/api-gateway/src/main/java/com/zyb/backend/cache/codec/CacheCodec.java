@@ -0,0 +1,26 @@
+package com.zyb.backend.cache.codec;
+
+import java.io.IOException;
+
+/**
+ * 缓存值编解码器
+ * <p>
+ * 每种编码对应一个固定的 id，写入缓存头部，读取时按 id 选择编解码器，
+ * 因此新旧版本网关可以同时读取彼此写入的数据。
+ */
+public interface CacheCodec {
+
+    /**
+     * 编码标识，写入后不可更改
+     */
+    byte id();
+
+    /**
+     * 编码名称，用于配置
+     */
+    String name();
+
+    byte[] encode(Object value) throws IOException;
+
+    <T> T decode(byte[] data, int offset, int length, Class<T> type) throws IOException;
+}
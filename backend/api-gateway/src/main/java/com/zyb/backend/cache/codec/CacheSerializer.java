@@ -0,0 +1,146 @@
+package com.zyb.backend.cache.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.zyb.backend.config.CacheConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * L2 缓存值序列化
+ * <p>
+ * 格式：魔数(1) + 格式版本(1) + 编码 id(1) + 标志位(1) + 数据。标志位目前只有“已压缩”一位，
+ * 超过阈值的数据使用 Deflate 压缩，解压后的大小受 max-inflated-bytes 限制。不以魔数开头的数据视为旧版本写入的 JSON 文本。
+ */
+@Slf4j
+@Component
+public class CacheSerializer {
+
+    private static final byte MAGIC = (byte) 0xCA;
+
+    private static final byte FORMAT_VERSION = 1;
+
+    private static final int HEADER_LENGTH = 4;
+
+    private static final byte FLAG_DEFLATE = 0x01;
+
+    @Resource
+    private CacheConfig cacheConfig;
+
+    private final Map<Byte, CacheCodec> codecs = new HashMap<>();
+
+    private CacheCodec writeCodec;
+
+    @PostConstruct
+    public void init() {
+        register(new JacksonCacheCodec(JacksonCacheCodec.JSON_ID, "json", new ObjectMapper()));
+        register(new JacksonCacheCodec(JacksonCacheCodec.SMILE_ID, "smile", new SmileMapper()));
+        writeCodec = codecs.values().stream()
+                .filter(codec -> codec.name().equalsIgnoreCase(cacheConfig.getCodec()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("不支持的缓存编码: " + cacheConfig.getCodec()));
+        log.info("L2缓存编码: {}, 压缩阈值: {}字节", writeCodec.name(), cacheConfig.getCompressThreshold());
+    }
+
+    private void register(CacheCodec codec) {
+        codecs.put(codec.id(), codec);
+    }
+
+    /**
+     * 序列化缓存值
+     */
+    public byte[] serialize(Object value) throws IOException {
+        byte[] body = writeCodec.encode(value);
+        byte flags = 0;
+        int threshold = cacheConfig.getCompressThreshold();
+        if (threshold > 0 && body.length > threshold) {
+            byte[] compressed = deflate(body);
+            // 压缩收益不明显时保留原始数据，省去读取时的解压
+            if (compressed.length < body.length) {
+                body = compressed;
+                flags |= FLAG_DEFLATE;
+            }
+        }
+        byte[] data = new byte[HEADER_LENGTH + body.length];
+        data[0] = MAGIC;
+        data[1] = FORMAT_VERSION;
+        data[2] = writeCodec.id();
+        data[3] = flags;
+        System.arraycopy(body, 0, data, HEADER_LENGTH, body.length);
+        return data;
+    }
+
+    /**
+     * 反序列化缓存值，无法识别的格式抛出异常，由调用方按缓存未命中处理
+     */
+    public <T> T deserialize(byte[] data, Class<T> type) throws IOException {
+        if (data.length < HEADER_LENGTH || data[0] != MAGIC) {
+            // 升级前写入的 JSON 文本
+            return codecs.get(JacksonCacheCodec.JSON_ID).decode(data, 0, data.length, type);
+        }
+        if (data[1] != FORMAT_VERSION) {
+            throw new IOException("不支持的缓存格式版本: " + data[1]);
+        }
+        CacheCodec codec = codecs.get(data[2]);
+        if (codec == null) {
+            throw new IOException("不支持的缓存编码: " + data[2]);
+        }
+        if ((data[3] & FLAG_DEFLATE) != 0) {
+            byte[] body = inflate(data, HEADER_LENGTH, data.length - HEADER_LENGTH);
+            return codec.decode(body, 0, body.length, type);
+        }
+        return codec.decode(data, HEADER_LENGTH, data.length - HEADER_LENGTH, type);
+    }
+
+    private byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 2);
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] inflate(byte[] input, int offset, int length) throws IOException {
+        int maxInflatedBytes = cacheConfig.getMaxInflatedBytes();
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, length);
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min((long) length * 3, maxInflatedBytes));
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("缓存数据压缩格式错误");
+                }
+                if (out.size() + count > maxInflatedBytes) {
+                    throw new IOException("缓存数据解压后超过" + maxInflatedBytes + "字节");
+                }
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException("缓存数据解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+}
@@ -0,0 +1,55 @@
+package com.zyb.backend.cache.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+/**
+ * 基于 Jackson 的编解码器，JSON 与 Smile 共用
+ */
+public class JacksonCacheCodec implements CacheCodec {
+
+    /**
+     * 文本 JSON
+     */
+    public static final byte JSON_ID = 1;
+
+    /**
+     * Smile 二进制 JSON
+     */
+    public static final byte SMILE_ID = 2;
+
+    private final byte id;
+
+    private final String name;
+
+    private final ObjectMapper objectMapper;
+
+    public JacksonCacheCodec(byte id, String name, ObjectMapper objectMapper) {
+        this.id = id;
+        this.name = name;
+        // 新版本实体增加的字段不应导致旧节点读取失败
+        this.objectMapper = objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public byte id() {
+        return id;
+    }
+
+    @Override
+    public String name() {
+        return name;
+    }
+
+    @Override
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    @Override
+    public <T> T decode(byte[] data, int offset, int length, Class<T> type) throws IOException {
+        return objectMapper.readValue(data, offset, length, type);
+    }
+}
@@ -25,7 +25,17 @@ public enum ErrorCodeEnum {
 
     INSUFFICIENT_INVOCATIONS(40309, "接口调用次数不足"),
 
-    INSUFFICIENT_BALANCE(40310, "用户余额不足");
+    INSUFFICIENT_BALANCE(40310, "用户余额不足"),
+
+    USER_BANNED(40311, "用户已被封禁"),
+
+    NONCE_REPLAYED(40312, "请求重复，随机数已使用"),
+
+    REQUEST_BODY_TOO_LARGE(40313, "请求体过大"),
+
+    NONCE_UNVERIFIABLE(40314, "随机数校验暂不可用，请稍后重试"),
+
+    INTERFACE_OFFLINE(40315, "接口已下线");
 
     private final int code;
     private final String message;
@@ -0,0 +1,35 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关异步计费配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.billing")
+public class BillingConfig {
+
+    /**
+     * 计费事件队列容量，队列满时新事件会被丢弃并告警
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单次 RPC 提交的最大增量条数，队列积压达到该值时会提前触发刷新
+     */
+    private int batchSize = 200;
+
+    /**
+     * 定时刷新间隔（毫秒）
+     */
+    private long flushIntervalMs = 1000;
+
+    /**
+     * 单个批次的最大提交次数，仍失败时转入死信日志并丢弃，避免一个批次阻塞后续计费
+     */
+    private int maxAttempts = 10;
+
+}
@@ -0,0 +1,86 @@
+package com.zyb.backend.config;
+
+import com.zyb.backend.cache.MultiLevelCache;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 网关多级缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.cache")
+public class CacheConfig {
+
+    /**
+     * 各缓存类型的策略，未配置的类型使用默认策略
+     */
+    private Map<MultiLevelCache.CacheType, Policy> policies = new EnumMap<>(MultiLevelCache.CacheType.class);
+
+    /**
+     * 负缓存（数据不存在）的过期时间
+     */
+    private Duration negativeTtl = Duration.ofSeconds(30);
+
+    /**
+     * 负缓存最大条数
+     */
+    private long negativeMaximumSize = 10000;
+
+    /**
+     * L2 写入使用的编码：json 或 smile，读取时按数据头部自动识别
+     */
+    private String codec = "smile";
+
+    /**
+     * L2 数据超过该字节数时压缩，0 表示不压缩
+     */
+    private int compressThreshold = 1024;
+
+    /**
+     * L2 数据解压后的最大字节数，超过时按缓存未命中处理，防止异常数据解压后占满内存；
+     * 需大于响应缓存的 max-body-bytes 编码后的大小
+     */
+    private int maxInflatedBytes = 1024 * 1024;
+
+    /**
+     * 后台刷新线程数
+     */
+    private int refreshThreads = 2;
+
+    public Policy getPolicy(MultiLevelCache.CacheType cacheType) {
+        return policies.getOrDefault(cacheType, new Policy());
+    }
+
+    /**
+     * 单个缓存类型的策略
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * L1 最大条数
+         */
+        private long maximumSize = 500;
+
+        /**
+         * L1 写入后过期时间，到期后下一次访问同步加载
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+
+        /**
+         * L1 写入后多久在后台异步刷新，刷新期间继续返回旧值；为空表示不刷新，需小于 expireAfterWrite
+         */
+        private Duration refreshAfterWrite;
+
+        /**
+         * L2（Redis）过期时间
+         */
+        private Duration redisTtl = Duration.ofMinutes(5);
+    }
+}
@@ -0,0 +1,50 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 接口级熔断与隔离的默认配置，后台为某个接口单独配置规则时以后台规则为准
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.circuit-breaker")
+public class CircuitBreakerConfig {
+
+    /**
+     * 单个接口的最大并发请求数（隔离舱），0 表示不限制
+     */
+    private int maxConcurrency = 50;
+
+    /**
+     * 慢调用的响应时间阈值（毫秒）
+     */
+    private int slowCallRtMs = 2000;
+
+    /**
+     * 慢调用比例阈值
+     */
+    private double slowRatioThreshold = 0.5;
+
+    /**
+     * 异常比例阈值
+     */
+    private double exceptionRatio = 0.5;
+
+    /**
+     * 触发熔断的最小请求数
+     */
+    private int minRequestAmount = 5;
+
+    /**
+     * 统计时长（毫秒）
+     */
+    private int statIntervalMs = 1000;
+
+    /**
+     * 熔断时长（秒）
+     */
+    private int timeWindowSeconds = 10;
+
+}
@@ -15,4 +15,13 @@ public class GatewayConfig {
     
     private List<String> ipWhiteList;
 
+    // 路由表定时全量刷新间隔，兜底丢失的接口变更事件
+    private long routeRefreshSeconds = 60;
+
+    // 是否接受旧版 MD5 签名，所有客户端升级后关闭
+    private boolean legacySignEnabled = true;
+
+    // 请求体大小上限（字节），签名时需要完整读取请求体
+    private long maxBodyBytes = 10 * 1024 * 1024;
+
 } 
\ No newline at end of file
@@ -0,0 +1,56 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 请求防重放配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.nonce")
+public class NonceConfig {
+
+    /**
+     * 时间戳有效窗口（秒），窗口内的随机数不可重复使用
+     */
+    private long windowSeconds = 120;
+
+    /**
+     * 允许客户端时间超前服务端的秒数
+     */
+    private long maxFutureSkewSeconds = 30;
+
+    /**
+     * 随机数最大长度
+     */
+    private int maxNonceLength = 64;
+
+    /**
+     * 本地布隆过滤器每个时间桶的跨度（秒）
+     */
+    private long bucketSeconds = 30;
+
+    /**
+     * 每个时间桶预计写入的随机数数量
+     */
+    private int expectedInsertions = 200000;
+
+    /**
+     * 布隆过滤器误判率
+     */
+    private double falsePositiveRate = 0.01;
+
+    /**
+     * 严格模式（默认）：每个随机数都同步写入 Redis 校验，跨节点重放也能立即拒绝，但每次请求多一次 Redis 往返。
+     * 关闭后本地未见过的随机数直接放行并异步写入 Redis，只能尽力防重放：异步写入完成前发往其他节点的重放请求会被放行
+     */
+    private boolean strict = true;
+
+    /**
+     * 同步校验时 Redis 不可用的处理：true 放行（只依赖时间戳窗口和本节点的布隆过滤器），false 拒绝请求
+     */
+    private boolean failOpen = true;
+
+}
@@ -0,0 +1,25 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关调用次数（Redis 计数器）配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.quota")
+public class QuotaConfig {
+
+    /**
+     * 计数器空闲过期时间（秒），每次扣减都会续期，过期后下次调用从数据库重新加载
+     */
+    private long keyTtlSeconds = 3600;
+
+    /**
+     * 未开通接口的负缓存时间（秒）
+     */
+    private long negativeTtlSeconds = 60;
+
+}
@@ -0,0 +1,48 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 网关多租户限流配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * 未配置档位的用户每个 accessKey 的每秒请求上限
+     */
+    private double defaultUserQps = 20;
+
+    /**
+     * 按用户角色划分的档位：角色 -> 每个 accessKey 的每秒请求上限
+     */
+    private Map<String, Double> tierQps = new HashMap<>();
+
+    /**
+     * 单独签约的 accessKey 的每秒请求上限，优先于档位
+     */
+    private Map<String, Double> accessKeyQps = new HashMap<>();
+
+    /**
+     * 限流模式：local 为单节点 Sentinel 限流，cluster 为所有网关节点共享上限
+     */
+    private String mode = "local";
+
+    /**
+     * 集群模式的令牌存储：redis，或 memory（进程内，仅用于单节点和测试）
+     */
+    private String clusterStore = "redis";
+
+    /**
+     * 集群模式下每次申请的令牌租约占上限的比例，越大访问存储越少，但多节点间的分配越不均匀
+     */
+    private double leaseRatio = 0.1;
+
+}
@@ -0,0 +1,35 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关响应缓存配置，是否缓存和缓存时长按接口配置（interface_info.cacheable / cacheTtl）
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * 总开关
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地缓存的响应体总字节数上限
+     */
+    private long maximumWeightBytes = 64L * 1024 * 1024;
+
+    /**
+     * 单个响应体超过该字节数时不缓存
+     */
+    private int maxBodyBytes = 256 * 1024;
+
+    /**
+     * 是否通过 Redis 在网关实例间共享缓存
+     */
+    private boolean redisEnabled = false;
+
+}
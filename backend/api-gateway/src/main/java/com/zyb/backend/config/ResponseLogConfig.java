@@ -0,0 +1,25 @@
+package com.zyb.backend.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网关响应日志配置（仅在 DEBUG 级别生效）
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "gateway.response-log")
+public class ResponseLogConfig {
+
+    /**
+     * 采样比例，0 表示不记录响应内容，1 表示全部记录
+     */
+    private double sampleRate = 0.01;
+
+    /**
+     * 采样时最多记录的响应体前缀字节数
+     */
+    private int maxPrefixBytes = 1024;
+
+}
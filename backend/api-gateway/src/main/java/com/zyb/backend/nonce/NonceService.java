@@ -0,0 +1,157 @@
+package com.zyb.backend.nonce;
+
+import com.zyb.backend.config.NonceConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 随机数防重放服务
+ * <p>
+ * Redis 中以 SET NX 记录窗口内用过的随机数，是跨节点的权威记录。默认严格模式下每个随机数都要等 Redis 写入
+ * 成功才放行（响应式客户端，不阻塞事件循环）。本地按时间桶维护的布隆过滤器只在非严格模式下用作前置检查：本地判定“一定没见过”的随机数
+ * 直接放行并异步写入 Redis，只有“可能见过”的才等待确认。非严格模式是尽力而为的，同一随机数在异步写入完成前
+ * 被发往其他节点会漏过，异步写入发现冲突时只能记录告警。
+ * <p>
+ * 等待确认时 Redis 不可用，按 fail-open 配置放行或以 {@link NonceUnavailableException} 结束。
+ */
+@Slf4j
+@Service
+public class NonceService {
+
+    @Resource
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Resource
+    private NonceConfig nonceConfig;
+
+    // 缓存key前缀
+    private static final String NONCE_KEY_PREFIX = "gateway:nonce:";
+
+    /**
+     * 时间桶环，覆盖整个有效窗口
+     */
+    private Bucket[] buckets;
+
+    private Duration nonceTtl;
+
+    private final LongAdder redisChecks = new LongAdder();
+
+    private final LongAdder replayRejected = new LongAdder();
+
+    private final LongAdder lateReplayDetected = new LongAdder();
+
+    private final LongAdder redisFailures = new LongAdder();
+
+    private static final class Bucket {
+
+        private final NonceBloomFilter filter;
+
+        private volatile long epoch = -1;
+
+        private Bucket(NonceBloomFilter filter) {
+            this.filter = filter;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        long windowSeconds = nonceConfig.getWindowSeconds() + nonceConfig.getMaxFutureSkewSeconds();
+        nonceTtl = Duration.ofSeconds(windowSeconds);
+        // 多一个桶，保证当前桶之前的完整窗口都在环内
+        int bucketCount = (int) ((windowSeconds + nonceConfig.getBucketSeconds() - 1) / nonceConfig.getBucketSeconds()) + 1;
+        buckets = new Bucket[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new Bucket(new NonceBloomFilter(
+                    nonceConfig.getExpectedInsertions(), nonceConfig.getFalsePositiveRate()));
+        }
+    }
+
+    /**
+     * 记录随机数，窗口内已使用过时为 false；Redis 不可用且未配置 fail-open 时以
+     * {@link NonceUnavailableException} 结束
+     */
+    public Mono<Boolean> checkAndRecord(String accessKey, String nonce) {
+        String key = NONCE_KEY_PREFIX + accessKey + ":" + nonce;
+        long currentEpoch = System.currentTimeMillis() / 1000 / nonceConfig.getBucketSeconds();
+
+        if (nonceConfig.isStrict() || mightContain(key, currentEpoch)) {
+            currentBucket(currentEpoch).filter.put(key);
+            return setIfAbsent(key);
+        }
+
+        currentBucket(currentEpoch).filter.put(key);
+        reactiveStringRedisTemplate.opsForValue().setIfAbsent(key, "1", nonceTtl)
+                .subscribe(absent -> {
+                    if (!Boolean.TRUE.equals(absent)) {
+                        lateReplayDetected.increment();
+                        log.warn("随机数已在其他节点使用过: {}", key);
+                    }
+                }, e -> log.warn("随机数写入Redis失败: {}", e.getMessage()));
+        return Mono.just(true);
+    }
+
+    /**
+     * 获取防重放统计信息
+     */
+    public String getStats() {
+        return String.format("同步Redis校验: %d, 拒绝重放: %d, 异步发现跨节点重放: %d, Redis不可用: %d",
+                redisChecks.sum(), replayRejected.sum(), lateReplayDetected.sum(), redisFailures.sum());
+    }
+
+    private Mono<Boolean> setIfAbsent(String key) {
+        redisChecks.increment();
+        return reactiveStringRedisTemplate.opsForValue().setIfAbsent(key, "1", nonceTtl)
+                .map(absent -> {
+                    if (Boolean.FALSE.equals(absent)) {
+                        replayRejected.increment();
+                        return false;
+                    }
+                    return true;
+                })
+                .defaultIfEmpty(true)
+                .onErrorResume(e -> {
+                    redisFailures.increment();
+                    if (nonceConfig.isFailOpen()) {
+                        // 按配置放行，只依赖时间戳窗口和本节点的布隆过滤器
+                        log.warn("随机数校验Redis失败，按配置放行: {}", e.getMessage());
+                        return Mono.just(true);
+                    }
+                    log.error("随机数校验Redis失败，按配置拒绝: {}", e.getMessage());
+                    return Mono.error(new NonceUnavailableException(e));
+                });
+    }
+
+    private boolean mightContain(String key, long currentEpoch) {
+        for (Bucket bucket : buckets) {
+            long epoch = bucket.epoch;
+            if (epoch > currentEpoch - buckets.length && epoch <= currentEpoch && bucket.filter.mightContain(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取当前时间桶，桶已过期时清空后重用
+     */
+    private Bucket currentBucket(long currentEpoch) {
+        Bucket bucket = buckets[(int) (currentEpoch % buckets.length)];
+        if (bucket.epoch != currentEpoch) {
+            synchronized (bucket) {
+                if (bucket.epoch < currentEpoch) {
+                    bucket.epoch = -1;
+                    bucket.filter.clear();
+                    bucket.epoch = currentEpoch;
+                }
+            }
+        }
+        return bucket;
+    }
+}
@@ -0,0 +1,11 @@
+package com.zyb.backend.nonce;
+
+/**
+ * 随机数无法校验（Redis 不可用且未配置 fail-open）
+ */
+public class NonceUnavailableException extends RuntimeException {
+
+    public NonceUnavailableException(Throwable cause) {
+        super("随机数校验服务不可用", cause);
+    }
+}
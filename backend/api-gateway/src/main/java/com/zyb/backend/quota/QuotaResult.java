@@ -0,0 +1,22 @@
+package com.zyb.backend.quota;
+
+/**
+ * 调用次数预扣结果
+ */
+public enum QuotaResult {
+
+    /**
+     * 预扣成功（含无限次调用）
+     */
+    ACQUIRED,
+
+    /**
+     * 调用次数不足
+     */
+    EXHAUSTED,
+
+    /**
+     * 未开通该接口
+     */
+    NO_PERMISSION
+}
@@ -0,0 +1,220 @@
+package com.zyb.backend.quota;
+
+import com.zyb.apiCommon.service.InnerUserInterfaceInfoService;
+import com.zyb.backend.cache.CacheService;
+import com.zyb.backend.config.QuotaConfig;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 调用次数服务
+ * <p>
+ * 以 Redis 中的计数器作为调用次数的实时来源：网关放行前用 Lua 脚本原子预扣，调用失败时退还；
+ * 数据库中的 user_interface_info 由 {@link com.zyb.backend.billing.BillingService} 异步合并回写。
+ * 计数器不存在时从数据库加载，此时尚未回写的增量不会体现在加载值中，最多放行这部分差额。
+ * 请求路径上的 Redis 脚本走响应式客户端，数据库加载放到 boundedElastic 线程，不阻塞 Netty 事件循环。
+ */
+@Slf4j
+@Service
+public class QuotaService {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private ReactiveStringRedisTemplate reactiveStringRedisTemplate;
+
+    @Resource
+    private CacheService cacheService;
+
+    @Resource
+    private QuotaConfig quotaConfig;
+
+    @DubboReference
+    private InnerUserInterfaceInfoService innerUserInterfaceInfoService;
+
+    // 缓存key前缀
+    private static final String QUOTA_KEY_PREFIX = "gateway:user_interface:quota:";
+
+    /**
+     * 剩余次数：无限次
+     */
+    private static final long UNLIMITED = -1;
+
+    /**
+     * 剩余次数：未开通（负缓存标记）
+     */
+    private static final long NO_PERMISSION = -2;
+
+    /**
+     * 脚本返回值：计数器未加载
+     */
+    private static final long NOT_LOADED = -3;
+
+    /**
+     * 预扣一次调用次数
+     * KEYS[1] 计数器 key，ARGV[1] 续期时间（毫秒）
+     * 返回：-3 未加载，-2 未开通，-1 无限次，0 次数不足，>0 扣减前的剩余次数
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local remain = redis.call('HGET', KEYS[1], 'remain')
+            if not remain then
+                return -3
+            end
+            remain = tonumber(remain)
+            if remain == -2 then
+                return -2
+            end
+            if remain == 0 then
+                return 0
+            end
+            if remain > 0 then
+                redis.call('HINCRBY', KEYS[1], 'remain', -1)
+            end
+            redis.call('HINCRBY', KEYS[1], 'total', 1)
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return remain
+            """, Long.class);
+
+    /**
+     * 退还一次预扣的调用次数
+     * KEYS[1] 计数器 key
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            local remain = redis.call('HGET', KEYS[1], 'remain')
+            if not remain then
+                return 0
+            end
+            remain = tonumber(remain)
+            if remain == -2 then
+                return 0
+            end
+            if remain >= 0 then
+                redis.call('HINCRBY', KEYS[1], 'remain', 1)
+            end
+            redis.call('HINCRBY', KEYS[1], 'total', -1)
+            return 1
+            """, Long.class);
+
+    /**
+     * 初始化计数器（已存在则不覆盖，多个网关并发加载时以先写入的为准）
+     * KEYS[1] 计数器 key，ARGV[1] 剩余次数，ARGV[2] 总调用次数，ARGV[3] 过期时间（毫秒）
+     */
+    private static final RedisScript<Long> LOAD_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'remain', ARGV[1], 'total', ARGV[2])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /**
+     * 预扣一次调用次数
+     */
+    public Mono<QuotaResult> tryAcquire(long userId, long interfaceInfoId) {
+        String key = getQuotaKey(userId, interfaceInfoId);
+        return executeAcquire(key)
+                .flatMap(result -> result == NOT_LOADED
+                        ? load(key, userId, interfaceInfoId).then(executeAcquire(key))
+                        : Mono.just(result))
+                .map(result -> {
+                    if (result == NO_PERMISSION) {
+                        return QuotaResult.NO_PERMISSION;
+                    }
+                    if (result == 0) {
+                        return QuotaResult.EXHAUSTED;
+                    }
+                    return QuotaResult.ACQUIRED;
+                })
+                .onErrorResume(e -> {
+                    log.error("Redis调用次数预扣失败，降级为缓存校验，userId: {}, interfaceId: {}", userId, interfaceInfoId, e);
+                    return fallbackCheck(userId, interfaceInfoId);
+                });
+    }
+
+    /**
+     * 退还预扣的调用次数（接口调用失败时），不等待执行结果
+     */
+    public void release(long userId, long interfaceInfoId) {
+        reactiveStringRedisTemplate.execute(RELEASE_SCRIPT, List.of(getQuotaKey(userId, interfaceInfoId)))
+                .subscribe(null, e -> log.warn("退还调用次数失败，userId: {}, interfaceId: {}: {}",
+                        userId, interfaceInfoId, e.getMessage()));
+    }
+
+    /**
+     * 删除计数器，下次调用时从数据库重新加载（调用次数在后台被修改时使用）
+     */
+    public void evict(long userId, long interfaceInfoId) {
+        try {
+            stringRedisTemplate.delete(getQuotaKey(userId, interfaceInfoId));
+        } catch (Exception e) {
+            log.warn("删除调用次数计数器失败，userId: {}, interfaceId: {}: {}", userId, interfaceInfoId, e.getMessage());
+        }
+    }
+
+    private Mono<Long> executeAcquire(String key) {
+        return reactiveStringRedisTemplate.execute(ACQUIRE_SCRIPT, List.of(key),
+                        List.of(String.valueOf(quotaConfig.getKeyTtlSeconds() * 1000)))
+                .next()
+                .switchIfEmpty(Mono.error(new IllegalStateException("调用次数预扣脚本无返回值")));
+    }
+
+    /**
+     * 从数据库加载计数器（Dubbo 调用是同步的，放到 boundedElastic 线程执行）
+     */
+    private Mono<Void> load(String key, long userId, long interfaceInfoId) {
+        return Mono.fromCallable(() -> {
+                    log.debug("从数据库加载调用次数: userId={}, interfaceId={}", userId, interfaceInfoId);
+                    return Optional.ofNullable(innerUserInterfaceInfoService.checkUserInterface(interfaceInfoId, userId));
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(userInterfaceInfo -> {
+                    long remain;
+                    long total;
+                    long ttlSeconds;
+                    if (userInterfaceInfo.isEmpty()) {
+                        remain = NO_PERMISSION;
+                        total = 0;
+                        ttlSeconds = quotaConfig.getNegativeTtlSeconds();
+                    } else {
+                        long remainNum = userInterfaceInfo.get().getRemainNum();
+                        remain = remainNum == UNLIMITED ? UNLIMITED : Math.max(remainNum, 0);
+                        total = userInterfaceInfo.get().getTotalNum();
+                        ttlSeconds = quotaConfig.getKeyTtlSeconds();
+                    }
+                    return reactiveStringRedisTemplate.execute(LOAD_SCRIPT, List.of(key),
+                            List.of(String.valueOf(remain), String.valueOf(total), String.valueOf(ttlSeconds * 1000)))
+                            .then();
+                });
+    }
+
+    /**
+     * Redis 不可用时退回到多级缓存中的用户接口关系做校验（不扣减）
+     */
+    private Mono<QuotaResult> fallbackCheck(long userId, long interfaceInfoId) {
+        return cacheService.getUserInterfaceInfo(userId, interfaceInfoId)
+                .map(userInterfaceInfo -> {
+                    if (userInterfaceInfo.getRemainNum() <= 0 && userInterfaceInfo.getRemainNum() != UNLIMITED) {
+                        return QuotaResult.EXHAUSTED;
+                    }
+                    return QuotaResult.ACQUIRED;
+                })
+                .defaultIfEmpty(QuotaResult.NO_PERMISSION);
+    }
+
+    private String getQuotaKey(long userId, long interfaceInfoId) {
+        return QUOTA_KEY_PREFIX + userId + ":" + interfaceInfoId;
+    }
+}
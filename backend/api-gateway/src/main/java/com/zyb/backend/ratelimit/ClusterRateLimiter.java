@@ -0,0 +1,103 @@
+package com.zyb.backend.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 集群限流器
+ * <p>
+ * 每个 key 在本地持有当前时间窗的令牌租约，租约用完后再向 {@link TokenStore} 申请，
+ * 因此大多数请求不需要访问存储。租约大小为上限的一定比例，时间窗结束时未用完的令牌作废，
+ * 最坏情况下实际放行量比上限少“节点数 × 租约大小”，不会超过上限。
+ */
+@Slf4j
+public class ClusterRateLimiter {
+
+    private final TokenStore tokenStore;
+
+    private final double leaseRatio;
+
+    // 长时间不活跃的 key 的租约直接丢弃，下次请求重新申请
+    private final Cache<String, Lease> leases = Caffeine.newBuilder()
+            .maximumSize(100000)
+            .expireAfterAccess(Duration.ofMinutes(1))
+            .build();
+
+    private final LongAdder storeCalls = new LongAdder();
+
+    /**
+     * 本地令牌租约，只在持有锁时修改
+     */
+    private static final class Lease {
+
+        private long window = -1;
+
+        private long remaining;
+
+        // 当前时间窗的令牌已全部发放，窗口结束前直接拒绝
+        private boolean exhausted;
+    }
+
+    public ClusterRateLimiter(TokenStore tokenStore, double leaseRatio) {
+        this.tokenStore = tokenStore;
+        this.leaseRatio = leaseRatio;
+    }
+
+    /**
+     * 申请一个令牌
+     */
+    public boolean tryAcquire(String key, long limit) {
+        return tryAcquire(key, limit, System.currentTimeMillis() / 1000);
+    }
+
+    /**
+     * 在指定时间窗申请一个令牌
+     */
+    boolean tryAcquire(String key, long limit, long window) {
+        if (limit <= 0) {
+            return false;
+        }
+        Lease lease = leases.get(key, k -> new Lease());
+        synchronized (lease) {
+            if (lease.window != window) {
+                lease.window = window;
+                lease.remaining = 0;
+                lease.exhausted = false;
+            }
+            if (lease.remaining > 0) {
+                lease.remaining--;
+                return true;
+            }
+            if (lease.exhausted) {
+                return false;
+            }
+            long batch = Math.max(1, Math.min(limit, (long) Math.ceil(limit * leaseRatio)));
+            long granted;
+            try {
+                storeCalls.increment();
+                granted = tokenStore.acquire(key, limit, batch, window);
+            } catch (Exception e) {
+                // 存储不可用时放行，由单机的全局限流兜底
+                log.warn("集群限流令牌申请失败，本次放行: {}", e.getMessage());
+                return true;
+            }
+            if (granted <= 0) {
+                lease.exhausted = true;
+                return false;
+            }
+            lease.remaining = granted - 1;
+            return true;
+        }
+    }
+
+    /**
+     * 访问令牌存储的次数
+     */
+    public long getStoreCalls() {
+        return storeCalls.sum();
+    }
+}
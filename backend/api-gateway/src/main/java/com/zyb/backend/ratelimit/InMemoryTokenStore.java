@@ -0,0 +1,29 @@
+package com.zyb.backend.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内令牌存储，语义与 {@link RedisTokenStore} 相同
+ * <p>
+ * 用于单节点部署和测试：多个 {@link ClusterRateLimiter} 共用同一个实例即可模拟多个网关节点。
+ */
+public class InMemoryTokenStore implements TokenStore {
+
+    private final Map<String, long[]> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public long acquire(String key, long limit, long requested, long window) {
+        long[] granted = new long[1];
+        counters.compute(key, (k, counter) -> {
+            // counter[0] 为时间窗，counter[1] 为已发放数量
+            if (counter == null || counter[0] != window) {
+                counter = new long[]{window, 0};
+            }
+            granted[0] = Math.max(0, Math.min(requested, limit - counter[1]));
+            counter[1] += granted[0];
+            return counter;
+        });
+        return granted[0];
+    }
+}
@@ -0,0 +1,189 @@
+package com.zyb.backend.ratelimit;
+
+import com.alibaba.csp.sentinel.Entry;
+import com.alibaba.csp.sentinel.EntryType;
+import com.alibaba.csp.sentinel.SphU;
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowException;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowItem;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.zyb.apiCommon.model.entity.InterfaceInfo;
+import com.zyb.backend.config.RateLimitConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多租户限流服务
+ * <p>
+ * 基于 Sentinel 热点参数限流：每个用户档位一个资源，以 accessKey 为参数，同档位内每个 accessKey 独立计数；
+ * 接口维度一个资源，以接口 id 为参数，上限来自接口的 qpsLimit 字段。规则只在启动和路由表重建时生成，
+ * 请求路径上只做计数。
+ * 集群模式下不使用 Sentinel，同样的上限由 {@link ClusterRateLimiter} 在所有网关节点间共享。
+ */
+@Slf4j
+@Service
+public class RateLimitService {
+
+    @Resource
+    private RateLimitConfig rateLimitConfig;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 用户档位资源名前缀
+     */
+    public static final String USER_TIER_RESOURCE_PREFIX = "gateway-user-tier:";
+
+    /**
+     * 接口限流资源名
+     */
+    public static final String INTERFACE_RESOURCE = "gateway-interface";
+
+    /**
+     * 未配置档位的角色使用的档位名
+     */
+    private static final String DEFAULT_TIER = "default";
+
+    /**
+     * 已生效的接口上限，只在规则加载时读写
+     */
+    private volatile Map<Long, Integer> interfaceLimits = Map.of();
+
+    /**
+     * 集群限流器，单节点模式下为 null
+     */
+    private ClusterRateLimiter clusterRateLimiter;
+
+    @PostConstruct
+    public void init() {
+        if ("cluster".equalsIgnoreCase(rateLimitConfig.getMode())) {
+            TokenStore tokenStore = "memory".equalsIgnoreCase(rateLimitConfig.getClusterStore())
+                    ? new InMemoryTokenStore()
+                    : new RedisTokenStore(stringRedisTemplate);
+            clusterRateLimiter = new ClusterRateLimiter(tokenStore, rateLimitConfig.getLeaseRatio());
+            log.info("限流模式: 集群，令牌存储: {}", tokenStore.getClass().getSimpleName());
+            return;
+        }
+        loadRules();
+    }
+
+    /**
+     * 按用户和接口校验限流，超限时抛出 BlockException
+     */
+    public void check(String accessKey, String userRole, InterfaceInfo interfaceInfo) throws BlockException {
+        String tier = userRole != null && rateLimitConfig.getTierQps().containsKey(userRole) ? userRole : DEFAULT_TIER;
+        Integer qpsLimit = interfaceInfo.getQpsLimit();
+        if (clusterRateLimiter != null) {
+            checkCluster(accessKey, tier, interfaceInfo.getId(), qpsLimit);
+            return;
+        }
+
+        enter(USER_TIER_RESOURCE_PREFIX + tier, accessKey);
+        if (qpsLimit == null || qpsLimit <= 0) {
+            return;
+        }
+        // 规则尚未包含该接口时（例如路由表首次加载前）按不限处理
+        enter(INTERFACE_RESOURCE, interfaceInfo.getId());
+    }
+
+    /**
+     * 路由表重建后按接口的 qpsLimit 更新接口规则，在路由表加载线程上执行，上限未变化时不重新加载
+     */
+    public void updateInterfaceLimits(List<InterfaceInfo> interfaceInfoList) {
+        if (clusterRateLimiter != null) {
+            return;
+        }
+        Map<Long, Integer> limits = new HashMap<>();
+        for (InterfaceInfo interfaceInfo : interfaceInfoList) {
+            Integer qpsLimit = interfaceInfo.getQpsLimit();
+            if (interfaceInfo.getId() != null && qpsLimit != null && qpsLimit > 0) {
+                limits.put(interfaceInfo.getId(), qpsLimit);
+            }
+        }
+        if (limits.equals(interfaceLimits)) {
+            return;
+        }
+        interfaceLimits = Map.copyOf(limits);
+        log.info("接口限流上限变更，限流接口{}个", limits.size());
+        loadRules();
+    }
+
+    private void checkCluster(String accessKey, String tier, long interfaceInfoId, Integer qpsLimit)
+            throws BlockException {
+        Double userQps = rateLimitConfig.getAccessKeyQps().get(accessKey);
+        if (userQps == null) {
+            userQps = DEFAULT_TIER.equals(tier) ? rateLimitConfig.getDefaultUserQps() : rateLimitConfig.getTierQps().get(tier);
+        }
+        if (!clusterRateLimiter.tryAcquire("user:" + accessKey, tokensPerSecond(userQps))) {
+            throw new ParamFlowException(USER_TIER_RESOURCE_PREFIX + tier, accessKey);
+        }
+        if (qpsLimit != null && qpsLimit > 0
+                && !clusterRateLimiter.tryAcquire("interface:" + interfaceInfoId, qpsLimit)) {
+            throw new ParamFlowException(INTERFACE_RESOURCE, String.valueOf(interfaceInfoId));
+        }
+    }
+
+    /**
+     * 只做 QPS 计数，不需要持有到请求结束
+     */
+    private void enter(String resource, Object param) throws BlockException {
+        Entry entry = SphU.entry(resource, EntryType.IN, 1, param);
+        entry.exit(1, param);
+    }
+
+    private synchronized void loadRules() {
+        List<ParamFlowRule> rules = new ArrayList<>();
+
+        // 单独签约的 accessKey 在所有档位中都使用自己的上限
+        List<ParamFlowItem> accessKeyItems = new ArrayList<>();
+        rateLimitConfig.getAccessKeyQps().forEach((accessKey, qps) -> accessKeyItems.add(new ParamFlowItem()
+                .setObject(accessKey)
+                .setClassType(String.class.getName())
+                .setCount((int) tokensPerSecond(qps))));
+
+        rules.add(paramRule(USER_TIER_RESOURCE_PREFIX + DEFAULT_TIER,
+                tokensPerSecond(rateLimitConfig.getDefaultUserQps()), accessKeyItems));
+        rateLimitConfig.getTierQps().forEach((tier, qps) ->
+                rules.add(paramRule(USER_TIER_RESOURCE_PREFIX + tier, tokensPerSecond(qps), accessKeyItems)));
+
+        // 接口规则：默认不限，只对配置了上限的接口生效
+        List<ParamFlowItem> interfaceItems = new ArrayList<>();
+        interfaceLimits.forEach((interfaceId, qps) -> interfaceItems.add(new ParamFlowItem()
+                .setObject(String.valueOf(interfaceId))
+                .setClassType(long.class.getName())
+                .setCount(qps)));
+        rules.add(paramRule(INTERFACE_RESOURCE, Integer.MAX_VALUE, interfaceItems));
+
+        ParamFlowRuleManager.loadRules(rules);
+        log.info("Sentinel热点参数限流规则加载完成，档位{}个，单独配置的accessKey{}个，限流接口{}个",
+                rateLimitConfig.getTierQps().size() + 1, accessKeyItems.size(), interfaceItems.size());
+    }
+
+    /**
+     * 令牌按整数发放，小数上限向上取整，避免 0.5 这类配置被截断为 0 而拒绝全部请求
+     */
+    private static long tokensPerSecond(double qps) {
+        return (long) Math.ceil(qps);
+    }
+
+    private ParamFlowRule paramRule(String resource, double count, List<ParamFlowItem> items) {
+        ParamFlowRule rule = new ParamFlowRule(resource);
+        rule.setParamIdx(0);
+        rule.setGrade(RuleConstant.FLOW_GRADE_QPS);
+        rule.setCount(count);
+        rule.setDurationInSec(1);
+        rule.setParamFlowItemList(new ArrayList<>(items));
+        return rule;
+    }
+}
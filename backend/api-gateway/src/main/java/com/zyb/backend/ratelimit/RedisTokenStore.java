@@ -0,0 +1,45 @@
+package com.zyb.backend.ratelimit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.Collections;
+
+/**
+ * 基于 Redis 的令牌存储，每个 key 每个时间窗一个计数器
+ */
+@Slf4j
+public class RedisTokenStore implements TokenStore {
+
+    // 缓存key前缀
+    private static final String RATE_LIMIT_KEY_PREFIX = "gateway:rate_limit:";
+
+    /**
+     * 发放令牌：已发放数量不超过上限，返回本次实际发放的数量
+     * KEYS[1] 计数器，ARGV[1] 上限，ARGV[2] 申请数量
+     */
+    private static final RedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local used = tonumber(redis.call('GET', KEYS[1]) or '0') " +
+            "local granted = math.min(tonumber(ARGV[2]), tonumber(ARGV[1]) - used) " +
+            "if granted <= 0 then return 0 end " +
+            "redis.call('INCRBY', KEYS[1], granted) " +
+            "redis.call('PEXPIRE', KEYS[1], 2000) " +
+            "return granted",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    public RedisTokenStore(StringRedisTemplate stringRedisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+    }
+
+    @Override
+    public long acquire(String key, long limit, long requested, long window) {
+        String redisKey = RATE_LIMIT_KEY_PREFIX + key + ":" + window;
+        Long granted = stringRedisTemplate.execute(ACQUIRE_SCRIPT, Collections.singletonList(redisKey),
+                String.valueOf(limit), String.valueOf(requested));
+        return granted == null ? 0 : granted;
+    }
+}
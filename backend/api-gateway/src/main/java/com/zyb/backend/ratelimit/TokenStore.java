@@ -0,0 +1,21 @@
+package com.zyb.backend.ratelimit;
+
+/**
+ * 集群限流的令牌存储，所有网关节点共享同一份计数
+ * <p>
+ * 按 1 秒时间窗计数：每个 key 在一个时间窗内最多发放 limit 个令牌，节点一次申请一批（租约），
+ * 在本地逐个消耗，避免每个请求都访问存储。
+ */
+public interface TokenStore {
+
+    /**
+     * 在当前时间窗内为 key 申请令牌
+     *
+     * @param key       限流 key
+     * @param limit     每秒令牌上限
+     * @param requested 本次申请的令牌数
+     * @param window    时间窗（epoch 秒）
+     * @return 实际发放的令牌数，0 表示当前时间窗已无剩余
+     */
+    long acquire(String key, long limit, long requested, long window);
+}
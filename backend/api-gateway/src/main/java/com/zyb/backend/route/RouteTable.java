@@ -0,0 +1,137 @@
+package com.zyb.backend.route;
+
+import com.zyb.apiCommon.model.entity.InterfaceInfo;
+import com.zyb.apiCommon.service.InnerInterfaceInfoService;
+import com.zyb.backend.cache.CacheService;
+import com.zyb.backend.config.GatewayConfig;
+import com.zyb.backend.ratelimit.RateLimitService;
+import com.zyb.backend.sentinel.SentinelRuleLoader;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 接口路由表
+ * <p>
+ * 启动时全量加载未删除的接口（已下线的接口也在表中，由网关过滤器按调用方角色拦截），按请求方法分区、以请求路径为 key 构建不可变索引，请求时直接用路径查找，
+ * 不再拼接缓存 key，也不再发起 RPC。接口变更事件和定时任务触发重建，新表构建完成后原子替换。
+ */
+@Slf4j
+@Component
+public class RouteTable {
+
+    @DubboReference
+    private InnerInterfaceInfoService innerInterfaceInfoService;
+
+    @Resource
+    private CacheService cacheService;
+
+    @Resource
+    private GatewayConfig gatewayConfig;
+
+    @Resource
+    private SentinelRuleLoader sentinelRuleLoader;
+
+    @Resource
+    private RateLimitService rateLimitService;
+
+    /**
+     * method -> (path -> 接口信息)，加载完成前为 null
+     */
+    private final AtomicReference<Map<String, Map<String, InterfaceInfo>>> routes = new AtomicReference<>();
+
+    private final AtomicBoolean reloadScheduled = new AtomicBoolean(false);
+
+    private ScheduledExecutorService reloadExecutor;
+
+    @PostConstruct
+    public void init() {
+        reloadExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "gateway-route-reloader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 启动时不阻塞，加载完成前按接口逐个查询
+        long interval = gatewayConfig.getRouteRefreshSeconds();
+        reloadExecutor.scheduleWithFixedDelay(this::reload, 0, interval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        reloadExecutor.shutdownNow();
+    }
+
+    /**
+     * 根据请求方法和路径查找接口，接口不存在时为空
+     */
+    public Mono<InterfaceInfo> getInterfaceInfo(String method, String path) {
+        Map<String, Map<String, InterfaceInfo>> current = routes.get();
+        if (current == null) {
+            return cacheService.getInterfaceInfo(gatewayConfig.getHost() + path, method);
+        }
+        Map<String, InterfaceInfo> methodRoutes = current.get(method);
+        return Mono.justOrEmpty(methodRoutes == null ? null : methodRoutes.get(path));
+    }
+
+    /**
+     * 接口变更后异步重建路由表，短时间内的多次变更只重建一次
+     */
+    public void requestReload() {
+        if (reloadScheduled.compareAndSet(false, true)) {
+            try {
+                reloadExecutor.execute(this::reload);
+            } catch (Exception e) {
+                reloadScheduled.set(false);
+            }
+        }
+    }
+
+    private void reload() {
+        reloadScheduled.set(false);
+        try {
+            List<InterfaceInfo> interfaceInfoList = innerInterfaceInfoService.listInterfaceInfo();
+            routes.set(build(interfaceInfoList));
+            log.info("路由表已更新，共{}个接口", interfaceInfoList.size());
+            // 为每个接口生成独立的熔断与隔离规则
+            sentinelRuleLoader.updateInterfaces(interfaceInfoList.stream().map(InterfaceInfo::getId).toList());
+            // 接口限流规则同样在这里重建，不在请求路径上加载
+            rateLimitService.updateInterfaceLimits(interfaceInfoList);
+        } catch (Throwable e) {
+            // 定时任务抛出异常会被取消调度，这里必须兜住；继续使用旧路由表
+            log.error("路由表加载失败", e);
+        }
+    }
+
+    private Map<String, Map<String, InterfaceInfo>> build(List<InterfaceInfo> interfaceInfoList) {
+        String host = gatewayConfig.getHost();
+        Map<String, Map<String, InterfaceInfo>> table = new HashMap<>();
+        for (InterfaceInfo interfaceInfo : interfaceInfoList) {
+            String url = interfaceInfo.getUrl();
+            if (url == null || interfaceInfo.getMethod() == null || !url.startsWith(host)) {
+                // 不属于本网关的接口无法通过网关访问
+                log.debug("跳过非本网关的接口: {} {}", interfaceInfo.getMethod(), url);
+                continue;
+            }
+            String method = interfaceInfo.getMethod().toUpperCase(Locale.ROOT);
+            table.computeIfAbsent(method, key -> new HashMap<>())
+                    .put(url.substring(host.length()), interfaceInfo);
+        }
+        Map<String, Map<String, InterfaceInfo>> immutableTable = new HashMap<>();
+        table.forEach((method, methodRoutes) -> immutableTable.put(method, Map.copyOf(methodRoutes)));
+        return Map.copyOf(immutableTable);
+    }
+}
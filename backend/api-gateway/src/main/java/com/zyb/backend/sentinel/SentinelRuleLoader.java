@@ -0,0 +1,214 @@
+package com.zyb.backend.sentinel;
+
+import com.alibaba.csp.sentinel.slots.block.RuleConstant;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRule;
+import com.alibaba.csp.sentinel.slots.block.degrade.DegradeRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRule;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleManager;
+import com.alibaba.csp.sentinel.slots.block.flow.FlowRuleUtil;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyb.apiCommon.constant.SentinelRuleConstant;
+import com.zyb.apiCommon.model.dto.SentinelDegradeRule;
+import com.zyb.apiCommon.model.dto.SentinelFlowRule;
+import com.zyb.apiCommon.model.dto.SentinelRuleSet;
+import com.zyb.backend.config.CircuitBreakerConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Sentinel 规则加载
+ * <p>
+ * 启动时从 Redis 读取后台保存的规则集，未配置或读取失败时使用默认规则；后台更新规则后通过发布/订阅通知，
+ * 收到后重新读取并整体替换。规则集中任一规则不合法时整体不生效，继续使用当前规则。
+ * <p>
+ * 路由表中的每个接口都有独立的资源（interface:{id}），默认带并发隔离和熔断规则，
+ * 规则集中为某个接口配置了同类规则时以规则集为准。
+ */
+@Slf4j
+@Component
+public class SentinelRuleLoader implements MessageListener {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private RedisMessageListenerContainer redisMessageListenerContainer;
+
+    @Resource
+    private CircuitBreakerConfig circuitBreakerConfig;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 当前生效的规则集（不含按接口生成的默认规则）
+     */
+    private SentinelRuleSet currentRuleSet;
+
+    /**
+     * 路由表中的接口 id
+     */
+    private Collection<Long> interfaceIds = List.of();
+
+    @PostConstruct
+    public void init() {
+        redisMessageListenerContainer.addMessageListener(this,
+                new ChannelTopic(SentinelRuleConstant.SENTINEL_RULES_CHANNEL));
+        reload();
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        log.info("收到Sentinel规则变更通知");
+        reload();
+    }
+
+    /**
+     * 重新读取并应用规则集
+     */
+    public synchronized void reload() {
+        SentinelRuleSet ruleSet;
+        try {
+            String json = stringRedisTemplate.opsForValue().get(SentinelRuleConstant.SENTINEL_RULES_KEY);
+            ruleSet = json == null ? defaultRuleSet() : objectMapper.readValue(json, SentinelRuleSet.class);
+        } catch (Exception e) {
+            log.error("读取Sentinel规则集失败，继续使用当前规则", e);
+            applyDefaultIfNone();
+            return;
+        }
+        if (!apply(ruleSet)) {
+            // 规则集不合法时保留当前规则；启动时还没有规则则使用默认规则，避免网关和接口完全没有保护
+            applyDefaultIfNone();
+        }
+    }
+
+    private void applyDefaultIfNone() {
+        if (currentRuleSet == null) {
+            log.warn("当前没有生效的Sentinel规则，使用默认规则");
+            apply(defaultRuleSet());
+        }
+    }
+
+    /**
+     * 路由表更新后为新的接口集合生成默认规则
+     */
+    public synchronized void updateInterfaces(Collection<Long> interfaceIds) {
+        this.interfaceIds = List.copyOf(interfaceIds);
+        if (currentRuleSet != null) {
+            apply(currentRuleSet);
+        }
+    }
+
+    /**
+     * 校验并应用规则集，并补充各接口的默认规则
+     */
+    private boolean apply(SentinelRuleSet ruleSet) {
+        List<FlowRule> flowRules = new ArrayList<>();
+        Set<String> flowResources = new HashSet<>();
+        for (SentinelFlowRule item : ruleSet.getFlowRules()) {
+            FlowRule rule = new FlowRule(item.getResource());
+            rule.setGrade(item.getGrade());
+            rule.setCount(item.getCount());
+            rule.setControlBehavior(item.getControlBehavior());
+            rule.setStrategy(RuleConstant.STRATEGY_DIRECT);
+            if (!FlowRuleUtil.isValidRule(rule)) {
+                log.error("流控规则不合法，规则集不生效: {}", item);
+                return false;
+            }
+            flowRules.add(rule);
+            flowResources.add(rule.getResource());
+        }
+        List<DegradeRule> degradeRules = new ArrayList<>();
+        Set<String> degradeResources = new HashSet<>();
+        for (SentinelDegradeRule item : ruleSet.getDegradeRules()) {
+            DegradeRule rule = new DegradeRule(item.getResource());
+            rule.setGrade(item.getGrade());
+            rule.setCount(item.getCount());
+            rule.setTimeWindow(item.getTimeWindow());
+            rule.setMinRequestAmount(item.getMinRequestAmount());
+            rule.setStatIntervalMs(item.getStatIntervalMs());
+            rule.setSlowRatioThreshold(item.getSlowRatioThreshold());
+            if (!DegradeRuleManager.isValidRule(rule)) {
+                log.error("熔断规则不合法，规则集不生效: {}", item);
+                return false;
+            }
+            degradeRules.add(rule);
+            degradeResources.add(rule.getResource());
+        }
+        currentRuleSet = ruleSet;
+
+        for (Long interfaceId : interfaceIds) {
+            String resource = SentinelRuleConstant.INTERFACE_RESOURCE_PREFIX + interfaceId;
+            if (!flowResources.contains(resource) && circuitBreakerConfig.getMaxConcurrency() > 0) {
+                flowRules.add(bulkheadRule(resource));
+            }
+            if (!degradeResources.contains(resource)) {
+                degradeRules.addAll(interfaceDegradeRules(resource));
+            }
+        }
+        FlowRuleManager.loadRules(flowRules);
+        DegradeRuleManager.loadRules(degradeRules);
+        log.info("Sentinel规则加载完成，流控规则{}条，熔断规则{}条，接口{}个",
+                flowRules.size(), degradeRules.size(), interfaceIds.size());
+        return true;
+    }
+
+    /**
+     * 接口并发隔离：同时在途的请求数不超过上限，慢接口占满后只拒绝自己的请求
+     */
+    private FlowRule bulkheadRule(String resource) {
+        FlowRule rule = new FlowRule(resource);
+        rule.setGrade(RuleConstant.FLOW_GRADE_THREAD);
+        rule.setCount(circuitBreakerConfig.getMaxConcurrency());
+        return rule;
+    }
+
+    /**
+     * 接口默认熔断规则：异常比例和慢调用比例
+     */
+    private List<DegradeRule> interfaceDegradeRules(String resource) {
+        DegradeRule exceptionRule = new DegradeRule(resource);
+        exceptionRule.setGrade(RuleConstant.DEGRADE_GRADE_EXCEPTION_RATIO);
+        exceptionRule.setCount(circuitBreakerConfig.getExceptionRatio());
+        exceptionRule.setTimeWindow(circuitBreakerConfig.getTimeWindowSeconds());
+        exceptionRule.setMinRequestAmount(circuitBreakerConfig.getMinRequestAmount());
+        exceptionRule.setStatIntervalMs(circuitBreakerConfig.getStatIntervalMs());
+
+        DegradeRule slowCallRule = new DegradeRule(resource);
+        slowCallRule.setGrade(RuleConstant.DEGRADE_GRADE_RT);
+        slowCallRule.setCount(circuitBreakerConfig.getSlowCallRtMs());
+        slowCallRule.setSlowRatioThreshold(circuitBreakerConfig.getSlowRatioThreshold());
+        slowCallRule.setTimeWindow(circuitBreakerConfig.getTimeWindowSeconds());
+        slowCallRule.setMinRequestAmount(circuitBreakerConfig.getMinRequestAmount());
+        slowCallRule.setStatIntervalMs(circuitBreakerConfig.getStatIntervalMs());
+
+        return List.of(exceptionRule, slowCallRule);
+    }
+
+    /**
+     * 默认规则：网关入口 QPS 不超过 100；熔断按接口配置，不再作用于整个网关
+     */
+    private SentinelRuleSet defaultRuleSet() {
+        SentinelRuleSet ruleSet = new SentinelRuleSet();
+
+        SentinelFlowRule globalRule = new SentinelFlowRule();
+        globalRule.setResource(SentinelRuleConstant.GATEWAY_RESOURCE);
+        globalRule.setGrade(RuleConstant.FLOW_GRADE_QPS);
+        globalRule.setCount(100.0);
+        ruleSet.getFlowRules().add(globalRule);
+
+        return ruleSet;
+    }
+}
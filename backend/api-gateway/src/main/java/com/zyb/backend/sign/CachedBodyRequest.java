@@ -0,0 +1,82 @@
+package com.zyb.backend.sign;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 已读取请求体的请求
+ * <p>
+ * 读取时逐块更新摘要，不拼接、不解码；读到的数据块原样保留，由下游转发时读取一次并释放。
+ * 下游没有读取时（如鉴权失败）需要调用 {@link #release()}。
+ */
+public class CachedBodyRequest extends ServerHttpRequestDecorator {
+
+    private final List<DataBuffer> chunks;
+
+    private final AtomicBoolean consumed = new AtomicBoolean(false);
+
+    private CachedBodyRequest(ServerHttpRequest delegate, List<DataBuffer> chunks) {
+        super(delegate);
+        this.chunks = chunks;
+    }
+
+    /**
+     * 读取请求体并计算摘要，超过大小上限时以 {@link BodyTooLargeException} 结束
+     */
+    public static Mono<CachedBodyRequest> read(ServerHttpRequest request, MessageDigest digest, long maxBytes) {
+        List<DataBuffer> chunks = new ArrayList<>();
+        long[] totalBytes = new long[1];
+        return request.getBody()
+                .doOnNext(buffer -> {
+                    chunks.add(buffer);
+                    totalBytes[0] += buffer.readableByteCount();
+                    if (totalBytes[0] > maxBytes) {
+                        throw new BodyTooLargeException(maxBytes);
+                    }
+                    // ByteBuffer 视图有独立的读写位置，不影响数据块本身，下游仍可完整读取
+                    try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+                        while (iterator.hasNext()) {
+                            digest.update(iterator.next());
+                        }
+                    }
+                })
+                .doOnError(e -> chunks.forEach(DataBufferUtils::release))
+                .doOnCancel(() -> chunks.forEach(DataBufferUtils::release))
+                .then(Mono.fromSupplier(() -> new CachedBodyRequest(request, chunks)));
+    }
+
+    @Override
+    public Flux<DataBuffer> getBody() {
+        return Flux.defer(() -> consumed.compareAndSet(false, true)
+                ? Flux.fromIterable(chunks)
+                : Flux.error(new IllegalStateException("请求体只能读取一次")));
+    }
+
+    /**
+     * 下游未读取请求体时释放缓存的数据块，已读取时不做处理
+     */
+    public void release() {
+        if (consumed.compareAndSet(false, true)) {
+            chunks.forEach(DataBufferUtils::release);
+        }
+    }
+
+    /**
+     * 请求体超过大小上限
+     */
+    public static class BodyTooLargeException extends RuntimeException {
+
+        public BodyTooLargeException(long maxBytes) {
+            super("请求体超过" + maxBytes + "字节");
+        }
+    }
+}
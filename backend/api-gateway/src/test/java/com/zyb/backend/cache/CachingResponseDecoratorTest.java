@@ -0,0 +1,78 @@
+package com.zyb.backend.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 只有成功的响应写入缓存，api-interface 以非 2xx 状态码返回的错误不缓存
+ */
+class CachingResponseDecoratorTest {
+
+    private static final String ERROR_BODY = "{\"error\": \"获取实时天气失败\"}";
+
+    private final List<CachedResponse> cached = new ArrayList<>();
+
+    @Test
+    void successfulResponseIsCached() {
+        write(HttpStatus.OK, "{\"temp\":\"20\"}");
+
+        assertEquals(1, cached.size());
+        assertEquals(HttpStatus.OK.value(), cached.get(0).getStatus());
+        assertEquals("{\"temp\":\"20\"}", new String(cached.get(0).getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void upstreamErrorResponseIsNotCached() {
+        MockServerHttpResponse response = write(HttpStatus.BAD_GATEWAY, ERROR_BODY);
+
+        assertTrue(cached.isEmpty());
+        // 响应体照常透传给调用方
+        assertEquals(ERROR_BODY, response.getBodyAsString().block());
+    }
+
+    @Test
+    void clientErrorResponseIsNotCached() {
+        write(HttpStatus.NOT_FOUND, "{\"error\": \"未查询到城市 abc 的信息\"}");
+
+        assertTrue(cached.isEmpty());
+    }
+
+    @Test
+    void noStoreResponseIsNotCached() {
+        MockServerHttpResponse response = new MockServerHttpResponse();
+        response.getHeaders().setCacheControl("no-store");
+        write(response, HttpStatus.OK, "{}");
+
+        assertTrue(cached.isEmpty());
+    }
+
+    @Test
+    void oversizedResponseIsNotCached() {
+        write(HttpStatus.OK, "x".repeat(2048));
+
+        assertTrue(cached.isEmpty());
+    }
+
+    private MockServerHttpResponse write(HttpStatus status, String body) {
+        return write(new MockServerHttpResponse(), status, body);
+    }
+
+    private MockServerHttpResponse write(MockServerHttpResponse response, HttpStatus status, String body) {
+        CachingResponseDecorator decorator = new CachingResponseDecorator(response, 1024, cached::add);
+        decorator.setStatusCode(status);
+        DataBuffer buffer = DefaultDataBufferFactory.sharedInstance.wrap(body.getBytes(StandardCharsets.UTF_8));
+        decorator.writeWith(Flux.just(buffer)).block();
+        return response;
+    }
+}
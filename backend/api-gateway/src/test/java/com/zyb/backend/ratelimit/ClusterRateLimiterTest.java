@@ -0,0 +1,144 @@
+package com.zyb.backend.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多个网关节点（多个 {@link ClusterRateLimiter}）共用一个 {@link InMemoryTokenStore} 时的全局上限
+ */
+class ClusterRateLimiterTest {
+
+    private static final String KEY = "user:ak";
+
+    private static final long WINDOW = 1_000;
+
+    @Test
+    void globalLimitHoldsRegardlessOfNodeCount() {
+        for (int nodes : new int[]{1, 2, 3, 5, 10}) {
+            List<ClusterRateLimiter> limiters = newLimiters(nodes, 0.1);
+            long granted = drain(limiters, KEY, 100, WINDOW, 50);
+            assertEquals(100, granted, "节点数: " + nodes);
+        }
+    }
+
+    @Test
+    void leaseLimitsOtherNodesToRemainingTokens() {
+        List<ClusterRateLimiter> limiters = newLimiters(2, 0.5);
+        ClusterRateLimiter first = limiters.get(0);
+        ClusterRateLimiter second = limiters.get(1);
+
+        // 第一个节点申请一批 5 个令牌，只用掉 1 个，其余留在本地租约中
+        assertTrue(first.tryAcquire(KEY, 10, WINDOW));
+        assertEquals(1, first.getStoreCalls());
+
+        // 第二个节点只能拿到存储中剩余的 5 个
+        assertEquals(5, drain(List.of(second), KEY, 10, WINDOW, 20));
+        // 第一个节点只能继续消耗租约中的 4 个，存储已无剩余
+        assertEquals(4, drain(List.of(first), KEY, 10, WINDOW, 20));
+        assertFalse(first.tryAcquire(KEY, 10, WINDOW));
+    }
+
+    @Test
+    void leaseIsConsumedLocallyWithoutStoreCalls() {
+        ClusterRateLimiter limiter = newLimiters(1, 0.5).get(0);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limiter.tryAcquire(KEY, 10, WINDOW));
+        }
+        assertEquals(1, limiter.getStoreCalls());
+    }
+
+    @Test
+    void unusedLeaseDoesNotCarryOverToNextWindow() {
+        List<ClusterRateLimiter> limiters = newLimiters(2, 0.5);
+        ClusterRateLimiter first = limiters.get(0);
+
+        // 上一个时间窗留在第一个节点的 4 个令牌在新窗口作废
+        assertTrue(first.tryAcquire(KEY, 10, WINDOW));
+        assertEquals(10, drain(limiters, KEY, 10, WINDOW + 1, 20));
+
+        // 已耗尽的时间窗结束后重新发放
+        assertEquals(10, drain(limiters, KEY, 10, WINDOW + 2, 20));
+    }
+
+    @Test
+    void exhaustedWindowRejectsUntilRollover() {
+        List<ClusterRateLimiter> limiters = newLimiters(3, 0.1);
+        assertEquals(20, drain(limiters, KEY, 20, WINDOW, 20));
+        long storeCalls = limiters.stream().mapToLong(ClusterRateLimiter::getStoreCalls).sum();
+
+        // 耗尽后同一窗口内直接本地拒绝，不再访问存储
+        for (ClusterRateLimiter limiter : limiters) {
+            assertFalse(limiter.tryAcquire(KEY, 20, WINDOW));
+        }
+        assertEquals(storeCalls, limiters.stream().mapToLong(ClusterRateLimiter::getStoreCalls).sum());
+
+        assertTrue(limiters.get(0).tryAcquire(KEY, 20, WINDOW + 1));
+    }
+
+    @Test
+    void globalLimitHoldsUnderConcurrency() throws Exception {
+        List<ClusterRateLimiter> limiters = newLimiters(4, 0.1);
+        int threadsPerNode = 4;
+        ExecutorService executor = Executors.newFixedThreadPool(limiters.size() * threadsPerNode);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Long>> results = new ArrayList<>();
+            for (ClusterRateLimiter limiter : limiters) {
+                for (int i = 0; i < threadsPerNode; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        long granted = 0;
+                        for (int n = 0; n < 500; n++) {
+                            if (limiter.tryAcquire(KEY, 1000, WINDOW)) {
+                                granted++;
+                            }
+                        }
+                        return granted;
+                    }));
+                }
+            }
+            start.countDown();
+            long granted = 0;
+            for (Future<Long> result : results) {
+                granted += result.get(10, TimeUnit.SECONDS);
+            }
+            assertEquals(1000, granted);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<ClusterRateLimiter> newLimiters(int nodes, double leaseRatio) {
+        InMemoryTokenStore tokenStore = new InMemoryTokenStore();
+        List<ClusterRateLimiter> limiters = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            limiters.add(new ClusterRateLimiter(tokenStore, leaseRatio));
+        }
+        return limiters;
+    }
+
+    /**
+     * 轮流在各节点上申请令牌，每个节点尝试 attemptsPerLimit 轮，返回总放行数
+     */
+    private static long drain(List<ClusterRateLimiter> limiters, String key, long limit, long window,
+                              int attemptsPerLimit) {
+        long granted = 0;
+        for (int i = 0; i < attemptsPerLimit * limit; i++) {
+            if (limiters.get(i % limiters.size()).tryAcquire(key, limit, window)) {
+                granted++;
+            }
+        }
+        return granted;
+    }
+}
@@ -0,0 +1,77 @@
+package com.zyb.backend.ratelimit;
+
+import com.alibaba.csp.sentinel.slots.block.BlockException;
+import com.alibaba.csp.sentinel.slots.block.flow.param.ParamFlowRuleManager;
+import com.zyb.apiCommon.model.entity.InterfaceInfo;
+import com.zyb.backend.config.RateLimitConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 单节点模式下的 Sentinel 规则：小数上限向上取整，接口上限随路由表更新生效
+ */
+class RateLimitServiceTest {
+
+    @Test
+    void fractionalTierQpsIsRoundedUp() {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setTierQps(Map.of("trial", 0.5));
+        RateLimitService rateLimitService = newService(config);
+
+        assertEquals(1, ParamFlowRuleManager
+                .getRulesOfResource(RateLimitService.USER_TIER_RESOURCE_PREFIX + "trial").get(0).getCount());
+        // 0.5 被截断为 0 时会拒绝全部请求；向上取整后每秒放行 1 个
+        assertDoesNotThrow(() -> rateLimitService.check("trial-ak", "trial", interfaceInfo()));
+        assertThrows(BlockException.class, () -> rateLimitService.check("trial-ak", "trial", interfaceInfo()));
+    }
+
+    @Test
+    void fractionalDefaultQpsIsRoundedUp() {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setDefaultUserQps(0.2);
+        RateLimitService rateLimitService = newService(config);
+
+        assertEquals(1, ParamFlowRuleManager
+                .getRulesOfResource(RateLimitService.USER_TIER_RESOURCE_PREFIX + "default").get(0).getCount());
+        assertDoesNotThrow(() -> rateLimitService.check("default-ak", null, interfaceInfo()));
+    }
+
+    @Test
+    void interfaceLimitAppliesAfterRouteUpdate() {
+        RateLimitService rateLimitService = newService(new RateLimitConfig());
+        InterfaceInfo limited = interfaceInfo(2L, 1);
+
+        // 路由表更新前接口规则中没有该接口，按不限处理
+        assertDoesNotThrow(() -> rateLimitService.check("route-ak-1", null, limited));
+        assertDoesNotThrow(() -> rateLimitService.check("route-ak-2", null, limited));
+
+        rateLimitService.updateInterfaceLimits(List.of(limited));
+        assertDoesNotThrow(() -> rateLimitService.check("route-ak-3", null, limited));
+        assertThrows(BlockException.class, () -> rateLimitService.check("route-ak-4", null, limited));
+    }
+
+    private static InterfaceInfo interfaceInfo() {
+        return interfaceInfo(1L, null);
+    }
+
+    private static InterfaceInfo interfaceInfo(long id, Integer qpsLimit) {
+        InterfaceInfo interfaceInfo = new InterfaceInfo();
+        interfaceInfo.setId(id);
+        interfaceInfo.setQpsLimit(qpsLimit);
+        return interfaceInfo;
+    }
+
+    private static RateLimitService newService(RateLimitConfig config) {
+        RateLimitService rateLimitService = new RateLimitService();
+        ReflectionTestUtils.setField(rateLimitService, "rateLimitConfig", config);
+        rateLimitService.init();
+        return rateLimitService;
+    }
+}
@@ -0,0 +1,105 @@
+package com.zyb.apiInterface.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zyb.apiInterface.config.CityCacheConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 城市名到天气地区 ID 的缓存
+ * <p>
+ * 先查启动时加载的离线索引（常驻，不淘汰），再查运行中通过上游查询得到的映射（LRU，长过期时间）。
+ * 城市名统一规范化后作为 key，“北京市”“ 北京 ”“北京”命中同一条记录。
+ */
+@Slf4j
+@Component
+public class CityLocationCache {
+
+    @Resource
+    private CityCacheConfig cityCacheConfig;
+
+    private Map<String, String> index = Map.of();
+
+    private Cache<String, String> lookupCache;
+
+    @PostConstruct
+    public void init() {
+        lookupCache = Caffeine.newBuilder()
+                .maximumSize(cityCacheConfig.getMaximumSize())
+                .expireAfterWrite(cityCacheConfig.getExpireAfterWrite())
+                .build();
+        index = loadIndex();
+    }
+
+    /**
+     * 规范化城市名：全角转半角、去除空白、英文/拼音转小写、去掉末尾的“市”
+     */
+    public static String normalize(String city) {
+        String normalized = Normalizer.normalize(city, Normalizer.Form.NFKC)
+                .replaceAll("\\s+", "")
+                .toLowerCase(Locale.ROOT);
+        if (normalized.length() > 2 && normalized.endsWith("市")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized;
+    }
+
+    /**
+     * 查询地区 ID，未命中返回 null
+     *
+     * @param normalizedCity 规范化后的城市名
+     */
+    public String get(String normalizedCity) {
+        String locationId = index.get(normalizedCity);
+        return locationId != null ? locationId : lookupCache.getIfPresent(normalizedCity);
+    }
+
+    /**
+     * 记录上游查询得到的地区 ID
+     */
+    public void put(String normalizedCity, String locationId) {
+        lookupCache.put(normalizedCity, locationId);
+    }
+
+    private Map<String, String> loadIndex() {
+        org.springframework.core.io.Resource indexFile = cityCacheConfig.getIndexFile();
+        if (indexFile == null || !indexFile.exists()) {
+            log.info("未配置离线城市索引");
+            return Map.of();
+        }
+        Map<String, String> loaded = new HashMap<>();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(indexFile.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                int separator = line.lastIndexOf(',');
+                if (separator <= 0 || separator == line.length() - 1) {
+                    log.warn("忽略格式错误的城市索引行: {}", line);
+                    continue;
+                }
+                loaded.put(normalize(line.substring(0, separator)), line.substring(separator + 1).strip());
+            }
+        } catch (IOException e) {
+            log.error("加载离线城市索引失败: {}", indexFile, e);
+            return Map.of();
+        }
+        log.info("离线城市索引加载完成，共{}条", loaded.size());
+        return Map.copyOf(loaded);
+    }
+}
@@ -0,0 +1,62 @@
+package com.zyb.apiInterface.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zyb.apiInterface.config.ResponseCacheConfig;
+import com.zyb.apiInterface.util.SingleFlight;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * 过期后先返回旧值再后台刷新的上游结果缓存
+ * <p>
+ * 缓存时长内直接返回；超过缓存时长但仍在容忍窗口内时立即返回旧值，同时在后台刷新，
+ * 刷新失败（上游超时、5xx 等）继续返回旧值直到超出窗口；超出窗口或从未加载过时等待上游结果。
+ * 同一 key 的加载和刷新同一时刻只有一个。
+ */
+@Slf4j
+public class StaleWhileRevalidateCache<K, V> {
+
+    private final long ttlNanos;
+
+    private final Cache<K, Entry<V>> cache;
+
+    private final SingleFlight<K, V> loadFlight = new SingleFlight<>();
+
+    public StaleWhileRevalidateCache(ResponseCacheConfig.Policy policy) {
+        this.ttlNanos = policy.getTtl().toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(policy.getMaximumSize())
+                .expireAfterWrite(policy.getTtl().plus(policy.getStaleWindow()))
+                .build();
+    }
+
+    /**
+     * 获取缓存结果，需要时通过 loader 查询上游
+     */
+    public CompletableFuture<V> get(K key, Function<K, CompletableFuture<V>> loader) {
+        Entry<V> entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return load(key, loader);
+        }
+        if (System.nanoTime() - entry.loadedAt() >= ttlNanos) {
+            load(key, loader).exceptionally(e -> {
+                log.warn("后台刷新失败，继续使用旧值: {}", key, e);
+                return null;
+            });
+        }
+        return CompletableFuture.completedFuture(entry.value());
+    }
+
+    private CompletableFuture<V> load(K key, Function<K, CompletableFuture<V>> loader) {
+        return loadFlight.execute(key, () -> loader.apply(key).thenApply(value -> {
+            cache.put(key, new Entry<>(value, System.nanoTime()));
+            return value;
+        }));
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,281 @@
+package com.zyb.apiInterface.client;
+
+import com.zyb.apiInterface.config.UpstreamClientConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 基于 JDK HttpClient 的上游调用客户端
+ * <p>
+ * 全局共享一个客户端，连接池复用长连接；请求异步发送，按主机限制并发数，超出的请求排队，
+ * 队列满或排队超过请求超时时间时直接失败。默认请求 gzip 压缩并在返回时解压。上游返回 4xx、5xx 时以
+ * {@link UpstreamStatusException} 失败，错误响应体不会交给调用方缓存。
+ */
+@Slf4j
+@Component
+@Profile("!mock")
+public class JdkUpstreamClient implements UpstreamClient {
+
+    @Resource
+    private UpstreamClientConfig upstreamClientConfig;
+
+    private HttpClient httpClient;
+
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    public void init() {
+        // JDK 连接池的空闲保活时长只能通过系统属性设置，需要在首次创建客户端前生效
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout",
+                    String.valueOf(upstreamClientConfig.getKeepAlive().toSeconds()));
+        }
+        httpClient = HttpClient.newBuilder()
+                .connectTimeout(upstreamClientConfig.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Override
+    public CompletableFuture<String> get(String url, Map<String, String> headers) {
+        URI uri = URI.create(url);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(uri)
+                .timeout(upstreamClientConfig.getRequestTimeout())
+                .header("Accept-Encoding", "gzip, deflate")
+                .GET();
+        headers.forEach(builder::header);
+        HttpRequest request = builder.build();
+
+        HostLimiter hostLimiter = hostLimiters.computeIfAbsent(uri.getHost() + ":" + uri.getPort(),
+                host -> new HostLimiter(upstreamClientConfig.getMaxConnectionsPerHost(),
+                        upstreamClientConfig.getMaxPendingPerHost(), upstreamClientConfig.getRequestTimeout()));
+        CompletableFuture<HttpResponse<byte[]>> sent =
+                hostLimiter.submit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofByteArray()));
+        CompletableFuture<String> result = sent.thenApply(response -> {
+                    if (response.statusCode() >= 400) {
+                        throw new UpstreamStatusException(response.statusCode(), url);
+                    }
+                    return decode(response);
+                });
+        // 调用方取消时取消排队或进行中的请求
+        result.whenComplete((value, e) -> {
+            if (result.isCancelled()) {
+                sent.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 按 Content-Encoding 解压，按 Content-Type 中的字符集解码，默认 UTF-8
+     */
+    private static String decode(HttpResponse<byte[]> response) {
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("");
+        byte[] body = response.body();
+        try {
+            if (encoding.contains("gzip")) {
+                body = readAll(new GZIPInputStream(new ByteArrayInputStream(body)));
+            } else if (encoding.contains("deflate")) {
+                body = readAll(new InflaterInputStream(new ByteArrayInputStream(body)));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("解压响应失败", e);
+        }
+        Charset charset = response.headers().firstValue("Content-Type")
+                .map(JdkUpstreamClient::charsetOf)
+                .orElse(StandardCharsets.UTF_8);
+        return new String(body, charset);
+    }
+
+    private static byte[] readAll(InputStream inputStream) throws IOException {
+        try (inputStream) {
+            return inputStream.readAllBytes();
+        }
+    }
+
+    private static Charset charsetOf(String contentType) {
+        for (String part : contentType.split(";")) {
+            String param = part.trim();
+            if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(param.substring(8).replace("\"", ""));
+                } catch (Exception e) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    /**
+     * 单个主机的并发限制：超出上限的请求排队，前一个请求结束后再发出，不阻塞调用线程
+     * <p>
+     * 排队超过等待上限仍未发出的请求以超时失败，调用方取消的请求直接移出队列；
+     * 已发出的请求被取消时一并取消底层请求。
+     */
+    private static final class HostLimiter {
+
+        private final int maxConcurrency;
+
+        private final int maxPending;
+
+        private final Duration queueTimeout;
+
+        private final Deque<Waiter<?>> pending = new ArrayDeque<>();
+
+        private int active;
+
+        // 正在发出排队请求，避免请求同步完成时在回调中递归发出下一个
+        private boolean draining;
+
+        HostLimiter(int maxConcurrency, int maxPending, Duration queueTimeout) {
+            this.maxConcurrency = maxConcurrency;
+            this.maxPending = maxPending;
+            this.queueTimeout = queueTimeout;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+            Waiter<T> waiter = new Waiter<>(task);
+            synchronized (this) {
+                if (active >= maxConcurrency || !pending.isEmpty()) {
+                    if (pending.size() >= maxPending) {
+                        return CompletableFuture.failedFuture(new RejectedExecutionException("上游请求排队已满"));
+                    }
+                    pending.addLast(waiter);
+                    enqueued(waiter);
+                    return waiter.result;
+                }
+                active++;
+                waiter.started = true;
+            }
+            start(waiter);
+            return waiter.result;
+        }
+
+        /**
+         * 排队的请求到期仍未发出时以超时失败；超时或被取消后移出队列
+         */
+        private void enqueued(Waiter<?> waiter) {
+            CompletableFuture.delayedExecutor(queueTimeout.toMillis(), TimeUnit.MILLISECONDS).execute(() -> {
+                synchronized (this) {
+                    // 先从队列移除的一方决定结果：已被取出发送的请求不再超时
+                    if (!pending.remove(waiter)) {
+                        return;
+                    }
+                }
+                waiter.result.completeExceptionally(new HttpTimeoutException("上游请求排队超时"));
+            });
+            waiter.result.whenComplete((value, e) -> {
+                synchronized (this) {
+                    if (!waiter.started) {
+                        pending.remove(waiter);
+                    }
+                }
+            });
+        }
+
+        private <T> void start(Waiter<T> waiter) {
+            CompletableFuture<T> future;
+            try {
+                future = waiter.task.get();
+            } catch (Throwable e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            CompletableFuture<T> request = future;
+            waiter.result.whenComplete((value, e) -> {
+                if (waiter.result.isCancelled()) {
+                    request.cancel(true);
+                }
+            });
+            request.whenComplete((value, e) -> {
+                release();
+                if (e != null) {
+                    waiter.result.completeExceptionally(e);
+                } else {
+                    waiter.result.complete(value);
+                }
+            });
+        }
+
+        private void release() {
+            synchronized (this) {
+                active--;
+                if (draining) {
+                    // 正在发出排队请求的线程会继续检查空出的名额
+                    return;
+                }
+                draining = true;
+            }
+            drain();
+        }
+
+        /**
+         * 在空出的名额内依次发出排队的请求
+         */
+        private void drain() {
+            while (true) {
+                Waiter<?> next;
+                synchronized (this) {
+                    next = active < maxConcurrency ? pending.pollFirst() : null;
+                    if (next == null) {
+                        draining = false;
+                        return;
+                    }
+                    active++;
+                    next.started = true;
+                }
+                if (next.result.isDone()) {
+                    // 已超时或被取消，名额留给下一个
+                    synchronized (this) {
+                        active--;
+                    }
+                    continue;
+                }
+                start(next);
+            }
+        }
+    }
+
+    /**
+     * 排队中的请求
+     */
+    private static final class Waiter<T> {
+
+        private final Supplier<CompletableFuture<T>> task;
+
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        // 只在持有 HostLimiter 锁时读写
+        private boolean started;
+
+        private Waiter(Supplier<CompletableFuture<T>> task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.zyb.apiInterface.client;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.zyb.apiInterface.config.MockUpstreamConfig;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 进程内模拟上游（mock profile），用于离线压测
+ * <p>
+ * 按配置注入延迟、失败和响应体大小，返回与真实上游结构一致的 JSON。同一 URL 的第 N 次请求的随机数只由种子、
+ * URL 和 N 决定，不同 URL 的请求并发交错不影响结果；同一 URL 的并发请求按到达顺序编号，相同配置下每个 URL
+ * 收到的结果集合可复现。延迟通过延时执行器实现，不占用线程。
+ */
+@Slf4j
+@Component
+@Profile("mock")
+public class MockUpstreamClient implements UpstreamClient {
+
+    /**
+     * 标准正态分布的 0.99 分位数
+     */
+    private static final double Z_99 = 2.326;
+
+    private static final DateTimeFormatter OBS_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mmXXX");
+
+    @Resource
+    private MockUpstreamConfig mockUpstreamConfig;
+
+    /**
+     * URL -> 该 URL 已收到的请求数
+     */
+    private final ConcurrentHashMap<String, AtomicLong> sequences = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<String> get(String url, Map<String, String> headers) {
+        long requestSeq = sequences.computeIfAbsent(url, key -> new AtomicLong()).getAndIncrement();
+        // String.hashCode 由规范定义，跨进程稳定
+        long urlSeed = mockUpstreamConfig.getSeed() * 31 + url.hashCode();
+        SplittableRandom random = new SplittableRandom(urlSeed + requestSeq * 0x9E3779B97F4A7C15L);
+        MockUpstreamConfig.Rule rule = matchRule(url);
+
+        long delayMillis = sampleLatency(rule, random);
+        boolean failed = random.nextDouble() < rule.getErrorRate();
+        return CompletableFuture.supplyAsync(() -> {
+            if (failed) {
+                throw new UpstreamStatusException(503, url);
+            }
+            return respond(URI.create(url), rule, random);
+        }, CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS));
+    }
+
+    private MockUpstreamConfig.Rule matchRule(String url) {
+        for (MockUpstreamConfig.Rule rule : mockUpstreamConfig.getRoutes().values()) {
+            if (rule.getMatch() != null && url.contains(rule.getMatch())) {
+                return rule;
+            }
+        }
+        return mockUpstreamConfig.getDefaults();
+    }
+
+    private static long sampleLatency(MockUpstreamConfig.Rule rule, SplittableRandom random) {
+        long latency = rule.getLatency().toMillis();
+        long maxLatency = Math.max(rule.getMaxLatency().toMillis(), latency);
+        return switch (rule.getDistribution()) {
+            case FIXED -> latency;
+            case UNIFORM -> latency == maxLatency ? latency : random.nextLong(latency, maxLatency + 1);
+            case LOGNORMAL -> {
+                if (latency <= 0) {
+                    yield 0;
+                }
+                double sigma = Math.log((double) maxLatency / latency) / Z_99;
+                yield Math.round(latency * Math.exp(sigma * nextGaussian(random)));
+            }
+        };
+    }
+
+    /**
+     * Box-Muller 变换生成标准正态分布随机数
+     */
+    private static double nextGaussian(SplittableRandom random) {
+        double u1 = 1.0 - random.nextDouble();
+        double u2 = random.nextDouble();
+        return Math.sqrt(-2 * Math.log(u1)) * Math.cos(2 * Math.PI * u2);
+    }
+
+    /**
+     * 按请求路径返回与真实上游结构一致的数据
+     */
+    private String respond(URI uri, MockUpstreamConfig.Rule rule, SplittableRandom random) {
+        String path = uri.getPath();
+        JSONObject body;
+        if (path.endsWith("/geo/v2/city/lookup")) {
+            body = cityLookup(queryParam(uri, "location"));
+        } else if (path.endsWith("/v7/weather/now")) {
+            body = weatherNow(random);
+        } else if (path.startsWith("/json/")) {
+            body = ipLocation(path.substring("/json/".length()));
+        } else if (path.contains("lishi")) {
+            return history(rule.getPayloadBytes());
+        } else {
+            body = JSONObject.of("mock", true);
+        }
+        return pad(body, rule.getPayloadBytes());
+    }
+
+    private static JSONObject cityLookup(String city) {
+        JSONObject location = new JSONObject();
+        location.put("name", city);
+        location.put("id", String.valueOf(101000000 + Math.floorMod(city.hashCode(), 1000000)));
+        location.put("adm1", "模拟省");
+        location.put("adm2", city);
+        location.put("country", "中国");
+        location.put("rank", 10);
+        return JSONObject.of("code", "200", "location", JSONArray.of(location));
+    }
+
+    private static JSONObject weatherNow(SplittableRandom random) {
+        JSONObject now = new JSONObject();
+        now.put("obsTime", OffsetDateTime.now(ZoneOffset.ofHours(8)).format(OBS_TIME_FORMAT));
+        now.put("temp", String.valueOf(random.nextInt(-10, 40)));
+        now.put("feelsLike", String.valueOf(random.nextInt(-10, 40)));
+        now.put("icon", "101");
+        now.put("text", "多云");
+        now.put("windDir", "南风");
+        now.put("windScale", String.valueOf(random.nextInt(0, 8)));
+        now.put("humidity", String.valueOf(random.nextInt(10, 100)));
+        now.put("precip", "0.0");
+        now.put("pressure", String.valueOf(random.nextInt(990, 1030)));
+        now.put("vis", String.valueOf(random.nextInt(1, 30)));
+        return JSONObject.of("code", "200", "now", now);
+    }
+
+    private static JSONObject ipLocation(String ip) {
+        JSONObject body = new JSONObject();
+        body.put("status", "success");
+        body.put("country", "中国");
+        body.put("regionName", "模拟省");
+        body.put("city", "模拟市");
+        body.put("query", URLDecoder.decode(ip, StandardCharsets.UTF_8));
+        return body;
+    }
+
+    /**
+     * 历史上的今天：结果列表会原样返回给调用方，按 payloadBytes 增加条数
+     */
+    private static String history(int payloadBytes) {
+        JSONArray result = new JSONArray();
+        String date = LocalDate.now().toString();
+        int size = 0;
+        do {
+            JSONObject item = JSONObject.of("date", date, "title", "模拟历史事件 " + result.size());
+            result.add(item);
+            size += JSON.toJSONBytes(item).length + 1;
+        } while (size < payloadBytes);
+        return JSON.toJSONString(JSONObject.of("code", 200, "result", result));
+    }
+
+    /**
+     * 响应体不足 payloadBytes 时追加填充字段
+     */
+    private static String pad(JSONObject body, int payloadBytes) {
+        String json = JSON.toJSONString(body);
+        int missing = payloadBytes - json.getBytes(StandardCharsets.UTF_8).length;
+        if (missing <= 0) {
+            return json;
+        }
+        body.put("mockPadding", "x".repeat(missing));
+        return JSON.toJSONString(body);
+    }
+
+    private static String queryParam(URI uri, String name) {
+        String query = uri.getRawQuery();
+        if (query == null) {
+            return "";
+        }
+        for (String pair : query.split("&")) {
+            int separator = pair.indexOf('=');
+            if (separator > 0 && pair.substring(0, separator).equals(name)) {
+                return URLDecoder.decode(pair.substring(separator + 1), StandardCharsets.UTF_8);
+            }
+        }
+        return "";
+    }
+}
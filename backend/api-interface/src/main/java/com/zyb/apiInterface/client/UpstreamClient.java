@@ -0,0 +1,22 @@
+package com.zyb.apiInterface.client;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 第三方接口调用客户端，异步返回响应体，不占用调用线程
+ */
+public interface UpstreamClient {
+
+    /**
+     * 发送 GET 请求，返回解压后的响应体文本；上游返回 4xx、5xx 时以 {@link UpstreamStatusException} 失败
+     *
+     * @param url     完整地址，查询参数需已编码
+     * @param headers 请求头
+     */
+    CompletableFuture<String> get(String url, Map<String, String> headers);
+
+    default CompletableFuture<String> get(String url) {
+        return get(url, Map.of());
+    }
+}
@@ -0,0 +1,17 @@
+package com.zyb.apiInterface.client;
+
+import lombok.Getter;
+
+/**
+ * 上游返回 4xx 或 5xx，响应体不可用
+ */
+@Getter
+public class UpstreamStatusException extends RuntimeException {
+
+    private final int statusCode;
+
+    public UpstreamStatusException(int statusCode, String url) {
+        super("上游返回异常状态: " + statusCode + ", url: " + url);
+        this.statusCode = statusCode;
+    }
+}
@@ -1,11 +1,20 @@
 package com.zyb.apiInterface.common;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
 /**
  * controller 统一的错误响应
+ * <p>
+ * 错误一律返回非 2xx 状态码：网关按状态码判断是否缓存响应、是否计费以及是否计入熔断统计。
  */
 public class ErrorResponse {
 
     public static String buildErrorResponse(String message) {
         return String.format("{\"error\": \"%s\"}", message);
     }
+
+    public static ResponseEntity<String> errorResponse(HttpStatus status, String message) {
+        return ResponseEntity.status(status).body(buildErrorResponse(message));
+    }
 }
@@ -0,0 +1,33 @@
+package com.zyb.apiInterface.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.Resource;
+
+import java.time.Duration;
+
+/**
+ * 城市名到天气地区 ID 的缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "api.weather.city-cache")
+public class CityCacheConfig {
+
+    /**
+     * 查询得到的映射最多缓存条数，超出后按最近最少使用淘汰
+     */
+    private long maximumSize = 10000;
+
+    /**
+     * 查询得到的映射缓存时长
+     */
+    private Duration expireAfterWrite = Duration.ofDays(7);
+
+    /**
+     * 启动时加载的离线城市索引（CSV：城市名,地区ID），为空或不存在时不加载
+     */
+    private Resource indexFile;
+
+}
@@ -0,0 +1,90 @@
+package com.zyb.apiInterface.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 模拟上游配置（mock profile）
+ */
+@Data
+@Configuration
+@Profile("mock")
+@ConfigurationProperties(prefix = "api.mock")
+public class MockUpstreamConfig {
+
+    /**
+     * 随机数种子，种子相同时第 N 个请求的延迟、是否失败和返回内容都相同
+     */
+    private long seed = 42;
+
+    /**
+     * 未匹配任何规则的请求使用的规则
+     */
+    private Rule defaults = new Rule();
+
+    /**
+     * 按地址匹配的规则，按配置顺序取第一个匹配的
+     */
+    private Map<String, Rule> routes = new LinkedHashMap<>();
+
+    /**
+     * 延迟分布
+     */
+    public enum LatencyDistribution {
+
+        /**
+         * 固定为 latency
+         */
+        FIXED,
+
+        /**
+         * 在 [latency, maxLatency] 内均匀分布
+         */
+        UNIFORM,
+
+        /**
+         * 对数正态分布，中位数为 latency，P99 为 maxLatency，长尾用于模拟上游抖动
+         */
+        LOGNORMAL
+    }
+
+    /**
+     * 单条模拟规则
+     */
+    @Data
+    public static class Rule {
+
+        /**
+         * 请求地址包含该字符串时匹配，为空时不参与匹配
+         */
+        private String match;
+
+        private LatencyDistribution distribution = LatencyDistribution.LOGNORMAL;
+
+        /**
+         * 固定延迟 / 均匀分布下限 / 对数正态分布中位数
+         */
+        private Duration latency = Duration.ofMillis(50);
+
+        /**
+         * 均匀分布上限 / 对数正态分布 P99
+         */
+        private Duration maxLatency = Duration.ofMillis(300);
+
+        /**
+         * 返回 503 的比例
+         */
+        private double errorRate = 0;
+
+        /**
+         * 响应体最小字节数，不足时填充
+         */
+        private int payloadBytes = 0;
+    }
+}
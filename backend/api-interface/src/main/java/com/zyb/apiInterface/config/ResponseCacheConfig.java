@@ -0,0 +1,49 @@
+package com.zyb.apiInterface.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 上游结果缓存配置，按接口分别设置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "api.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * 各接口的缓存策略，未配置的接口使用默认策略
+     */
+    private Map<String, Policy> endpoints = new HashMap<>();
+
+    public Policy getPolicy(String endpoint) {
+        return endpoints.getOrDefault(endpoint, new Policy());
+    }
+
+    /**
+     * 单个接口的缓存策略
+     */
+    @Data
+    public static class Policy {
+
+        /**
+         * 缓存时长，期间直接返回缓存结果
+         */
+        private Duration ttl = Duration.ofMinutes(1);
+
+        /**
+         * 超过缓存时长后仍可返回旧值的时长，期间后台刷新，刷新失败时继续返回旧值
+         */
+        private Duration staleWindow = Duration.ofMinutes(30);
+
+        /**
+         * 最大条数
+         */
+        private long maximumSize = 1000;
+    }
+}
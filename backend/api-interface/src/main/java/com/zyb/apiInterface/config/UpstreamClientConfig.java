@@ -0,0 +1,42 @@
+package com.zyb.apiInterface.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * 第三方接口调用客户端配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "api.upstream")
+public class UpstreamClientConfig {
+
+    /**
+     * 建立连接超时
+     */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 单次请求超时（从发出请求到收到完整响应）
+     */
+    private Duration requestTimeout = Duration.ofSeconds(10);
+
+    /**
+     * 空闲连接保活时长
+     */
+    private Duration keepAlive = Duration.ofSeconds(60);
+
+    /**
+     * 每个上游主机同时进行的请求数上限
+     */
+    private int maxConnectionsPerHost = 50;
+
+    /**
+     * 每个上游主机排队等待的请求数上限，超出后直接失败
+     */
+    private int maxPendingPerHost = 500;
+
+}
@@ -1,31 +1,76 @@
 package com.zyb.apiInterface.controller;
 
-import cn.hutool.http.HttpUtil;
 import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONObject;
+import com.alibaba.fastjson2.JSONArray;
+import com.zyb.apiInterface.cache.StaleWhileRevalidateCache;
+import com.zyb.apiInterface.client.UpstreamClient;
+import com.zyb.apiInterface.config.ResponseCacheConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
-import static com.zyb.apiInterface.common.ErrorResponse.buildErrorResponse;
+import java.time.LocalDate;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.zyb.apiInterface.common.ErrorResponse.errorResponse;
 
 @Slf4j
 @RestController
 @RequestMapping("/history")
 public class HistoryController {
 
+    private static final String API_URL = "https://api.oick.cn/lishi/api.php";
+
+    @Resource
+    private UpstreamClient upstreamClient;
+
+    @Resource
+    private ResponseCacheConfig responseCacheConfig;
+
+    /**
+     * 按日期缓存，跨天后重新查询；上游不可用时在容忍窗口内返回上次的结果
+     */
+    private StaleWhileRevalidateCache<LocalDate, String> historyCache;
+
+    @PostConstruct
+    public void init() {
+        historyCache = new StaleWhileRevalidateCache<>(responseCacheConfig.getPolicy("history-today"));
+    }
+
     @GetMapping("/today")
-    public String getHistoryOfToday() {
-        String apiUrl = "https://api.oick.cn/lishi/api.php";
-        String response = HttpUtil.get(apiUrl);
-        
+    public CompletableFuture<ResponseEntity<String>> getHistoryOfToday() {
+        return historyCache.get(LocalDate.now(), date -> upstreamClient.get(API_URL).thenApply(this::parseResult))
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof IllegalArgumentException) {
+                        log.error("解析字段失败", cause);
+                        return errorResponse(HttpStatus.BAD_GATEWAY, "解析字段失败");
+                    }
+                    log.error("请求失败", cause);
+                    return errorResponse(HttpStatus.BAD_GATEWAY, "请求失败");
+                });
+    }
+
+    /**
+     * 提取结果字段，解析失败时抛出异常，不写入缓存
+     */
+    private String parseResult(String response) {
+        JSONArray result;
         try {
-            JSONObject jsonObject = JSON.parseObject(response);
-            return jsonObject.getJSONArray("result").toJSONString();
+            result = JSON.parseObject(response).getJSONArray("result");
         } catch (Exception e) {
-            log.error("解析字段失败", e);
-            return buildErrorResponse("解析字段失败");
+            throw new IllegalArgumentException("解析字段失败", e);
+        }
+        if (result == null) {
+            throw new IllegalArgumentException("缺少 result 字段");
         }
+        return result.toJSONString();
     }
-}
\ No newline at end of file
+}
@@ -1,33 +1,81 @@
 package com.zyb.apiInterface.controller;
 
-import cn.hutool.http.HttpUtil;
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONObject;
+import com.zyb.apiInterface.cache.StaleWhileRevalidateCache;
+import com.zyb.apiInterface.client.UpstreamClient;
+import com.zyb.apiInterface.config.ResponseCacheConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.HashMap;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
-import static com.zyb.apiInterface.common.ErrorResponse.buildErrorResponse;
+import static com.zyb.apiInterface.common.ErrorResponse.errorResponse;
 
 @Slf4j
 @RestController
 @RequestMapping("/ip")
 public class IpController {
 
+    @Resource
+    private UpstreamClient upstreamClient;
+
+    @Resource
+    private ResponseCacheConfig responseCacheConfig;
+
+    /**
+     * 按 IP 缓存归属地，上游不可用时在容忍窗口内返回上次的结果
+     */
+    private StaleWhileRevalidateCache<String, String> ipCache;
+
+    @PostConstruct
+    public void init() {
+        ipCache = new StaleWhileRevalidateCache<>(responseCacheConfig.getPolicy("ip-location"));
+    }
+
     @PostMapping("/get")
-    public String getIpLocation(@RequestParam String ip) {
-        String url = "http://ip-api.com/json/" + ip;
-        
-        HashMap<String, Object> paramMap = new HashMap<>();
-        paramMap.put("lang", "zh-CN");
-        
+    public CompletableFuture<ResponseEntity<String>> getIpLocation(@RequestParam String ip) {
+        return ipCache.get(ip.strip(), key -> upstreamClient.get(
+                        "http://ip-api.com/json/" + URLEncoder.encode(key, StandardCharsets.UTF_8) + "?lang=zh-CN")
+                        .thenApply(this::parseResult))
+                .thenApply(ResponseEntity::ok)
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof IllegalArgumentException) {
+                        log.warn("查询IP归属地失败: {}, {}", ip, cause.getMessage());
+                        return errorResponse(HttpStatus.BAD_REQUEST, "查询IP归属地失败");
+                    }
+                    log.error("请求失败", cause);
+                    return errorResponse(HttpStatus.BAD_GATEWAY, "请求失败");
+                });
+    }
+
+    /**
+     * 校验查询结果，status 不为 success（如私有地址、格式错误）时抛出异常，不写入缓存
+     */
+    private String parseResult(String response) {
+        JSONObject result;
         try {
-            return HttpUtil.get(url, paramMap);
+            result = JSON.parseObject(response);
         } catch (Exception e) {
-            log.error("请求失败", e);
-            return buildErrorResponse("请求失败");
+            throw new IllegalStateException("解析字段失败", e);
+        }
+        if (result == null) {
+            throw new IllegalStateException("响应为空");
+        }
+        if (!"success".equals(result.getString("status"))) {
+            throw new IllegalArgumentException(result.getString("message"));
         }
+        return response;
     }
-}
\ No newline at end of file
+}
@@ -1,24 +1,37 @@
 package com.zyb.apiInterface.controller;
 
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.http.HttpRequest;
 import com.alibaba.fastjson2.JSON;
-import com.alibaba.fastjson2.JSONArray;
-import com.alibaba.fastjson2.JSONObject;
+import com.zyb.apiInterface.cache.CityLocationCache;
+import com.zyb.apiInterface.client.UpstreamClient;
+import com.zyb.apiInterface.client.UpstreamStatusException;
 import com.zyb.apiInterface.model.dto.CityInfo;
+import com.zyb.apiInterface.model.dto.CityLookupResponse;
 import com.zyb.apiInterface.model.dto.WeatherInfo;
-import com.zyb.apiInterface.util.JwtUtil;
+import com.zyb.apiInterface.model.dto.WeatherNowResponse;
+import com.zyb.apiInterface.model.vo.WeatherVO;
+import com.zyb.apiInterface.util.JwtTokenProvider;
+import com.zyb.apiInterface.util.SingleFlight;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 
-import static com.zyb.apiInterface.common.ErrorResponse.buildErrorResponse;
+import static com.zyb.apiInterface.common.ErrorResponse.errorResponse;
 
 /**
  * 天气 API
@@ -31,105 +44,140 @@ public class WeatherController {
     @Value("${api.weather.api-host}")
     private String weatherApiHost;
 
-    private static String jwt;
+    /**
+     * 城市查询接口表示“没有匹配的城市”的状态码
+     */
+    private static final String NO_MATCH_CODE = "404";
+
+    @Resource
+    private UpstreamClient upstreamClient;
+
+    @Resource
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Resource
+    private CityLocationCache cityLocationCache;
+
+    /**
+     * 同一城市、同一地区 ID 的并发查询只请求一次上游
+     */
+    private final SingleFlight<String, Optional<String>> locationFlight = new SingleFlight<>();
+
+    private final SingleFlight<String, WeatherInfo> weatherFlight = new SingleFlight<>();
 
     @GetMapping("/get")
-    public String getWeatherByGet(String city) throws Exception {
+    public CompletableFuture<ResponseEntity<String>> getWeatherByGet(String city) {
         if (StrUtil.isBlank(city)) {
-            return buildErrorResponse("城市名称不能为空");
+            return CompletableFuture.completedFuture(errorResponse(HttpStatus.BAD_REQUEST, "城市名称不能为空"));
         }
 
-        String locationId = getCityLocationId(city);
-        if (locationId == null) {
-            return buildErrorResponse(String.format("未查询到城市 %s 的信息", city));
-        }
+        return resolveLocationId(city)
+                .handle((locationId, e) -> {
+                    if (e != null) {
+                        // 城市查询失败不是“城市不存在”，返回 502 而不是 404
+                        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        log.error("获取城市ID失败: {}", city, cause);
+                        return CompletableFuture.completedFuture(errorResponse(HttpStatus.BAD_GATEWAY, "查询城市信息失败"));
+                    }
+                    if (locationId.isEmpty()) {
+                        return CompletableFuture.completedFuture(errorResponse(HttpStatus.NOT_FOUND,
+                                String.format("未查询到城市 %s 的信息", city)));
+                    }
+                    return weatherFlight.execute(locationId.get(), () -> getRealtimeWeather(locationId.get()))
+                            .thenApply(weatherInfo -> weatherInfo == null
+                                    ? errorResponse(HttpStatus.BAD_GATEWAY, "获取实时天气失败")
+                                    : ResponseEntity.ok(JSON.toJSONString(WeatherVO.from(weatherInfo))));
+                })
+                .thenCompose(Function.identity());
+    }
 
-        WeatherInfo weatherInfo = getRealtimeWeather(locationId);
-        if (weatherInfo == null) {
-            return buildErrorResponse("获取实时天气失败");
+    /**
+     * 解析城市 ID：先查缓存和离线索引，未命中时查询上游并缓存结果
+     * <p>
+     * 规范化后的名称只用作缓存和合并请求的 key，上游查询使用用户输入的原始名称（去掉首尾空白），
+     * 避免规范化（如去掉“市”、转小写）改变上游的匹配结果。
+     */
+    private CompletableFuture<Optional<String>> resolveLocationId(String city) {
+        String normalizedCity = CityLocationCache.normalize(city);
+        String cachedLocationId = cityLocationCache.get(normalizedCity);
+        if (cachedLocationId != null) {
+            return CompletableFuture.completedFuture(Optional.of(cachedLocationId));
         }
-
-        return JSON.toJSONString(translate(weatherInfo));
+        String queryCity = city.strip();
+        return locationFlight.execute(normalizedCity, () -> getCityLocationId(queryCity)
+                .thenApply(locationId -> {
+                    locationId.ifPresent(id -> cityLocationCache.put(normalizedCity, id));
+                    return locationId;
+                }));
     }
 
     /**
-     * 将 WeatherInfo 对象的字段名转换为中文
+     * 获取城市 ID，没有匹配的城市时为空；上游不可用或返回错误时以异常结束，不当作“城市不存在”
      */
-    private JSONObject translate(WeatherInfo weatherInfo) {
-        JSONObject chineseKeyJson = new JSONObject();
-        chineseKeyJson.put("数据观测时间", weatherInfo.getObsTime());
-        chineseKeyJson.put("温度", weatherInfo.getTemp());
-        chineseKeyJson.put("体感温度", weatherInfo.getFeelsLike());
-        chineseKeyJson.put("天气状况", weatherInfo.getText());
-        chineseKeyJson.put("风向", weatherInfo.getWindDir());
-        chineseKeyJson.put("风力等级", weatherInfo.getWindScale());
-        chineseKeyJson.put("相对湿度", weatherInfo.getHumidity());
-        chineseKeyJson.put("当前小时累计降水量", weatherInfo.getPrecip());
-        chineseKeyJson.put("大气压强", weatherInfo.getPressure());
-        chineseKeyJson.put("能见度", weatherInfo.getVis());
-        return chineseKeyJson;
+    private CompletableFuture<Optional<String>> getCityLocationId(String city) {
+        String url = "https://" + weatherApiHost + "/geo/v2/city/lookup?location="
+                + URLEncoder.encode(city, StandardCharsets.UTF_8);
+        return upstreamClient.get(url, authorizationHeader())
+                .thenApply(result -> {
+                    log.info("查询城市ID: {}, 返回: {}", city, result);
+
+                    // 直接解析为城市列表，不经过中间的 JSONObject
+                    CityLookupResponse response = JSON.parseObject(result, CityLookupResponse.class);
+                    if (response == null) {
+                        throw new IllegalStateException("城市查询响应为空");
+                    }
+                    // 404 表示查询成功但没有匹配的城市，其他非 200 状态码都是查询失败
+                    if (NO_MATCH_CODE.equals(response.getCode())) {
+                        return Optional.<String>empty();
+                    }
+                    if (!"200".equals(response.getCode())) {
+                        throw new IllegalStateException("城市查询失败，code: " + response.getCode());
+                    }
+                    List<CityInfo> cityList = response.getLocation();
+                    if (cityList == null || cityList.isEmpty()) {
+                        return Optional.<String>empty();
+                    }
+
+                    // 根据 rank 字段找到最优匹配
+                    return cityList.stream()
+                            .min(Comparator.comparingInt(CityInfo::getRank))
+                            .map(CityInfo::getId);
+                })
+                .exceptionally(e -> {
+                    Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof UpstreamStatusException statusException
+                            && statusException.getStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                        return Optional.empty();
+                    }
+                    throw e instanceof CompletionException completionException
+                            ? completionException : new CompletionException(cause);
+                });
     }
 
     /**
-     * 获取城市 ID
+     * 获取实时天气，查询失败时返回 null
      */
-    private String getCityLocationId(String city) throws Exception {
-        String url = "https://" + weatherApiHost + "/geo/v2/city/lookup?location=" + city;
-        jwt = JwtUtil.getJwt();
-
-        try {
-            String result = HttpRequest.get(url)
-                    .header("Authorization", "Bearer " + jwt)
-                    .header("Accept-Encoding", "gzip, deflate")
-                    .execute()
-                    .body();
-
-            log.info("查询城市ID: {}, 返回: {}", city, result);
-
-            JSONObject jsonObject = JSON.parseObject(result);
-            if ("200".equals(jsonObject.getString("code"))) {
-                JSONArray locationArray = jsonObject.getJSONArray("location");
-                if (locationArray == null || locationArray.isEmpty()) {
+    private CompletableFuture<WeatherInfo> getRealtimeWeather(String locationId) {
+        String url = "https://" + weatherApiHost + "/v7/weather/now?location="
+                + URLEncoder.encode(locationId, StandardCharsets.UTF_8);
+
+        return upstreamClient.get(url, authorizationHeader())
+                .thenApply(result -> {
+                    log.info("查询实时天气: {}, 返回: {}", locationId, result);
+
+                    WeatherNowResponse response = JSON.parseObject(result, WeatherNowResponse.class);
+                    if (response == null || !"200".equals(response.getCode())) {
+                        return null;
+                    }
+                    return response.getNow();
+                })
+                .exceptionally(e -> {
+                    log.error("获取实时天气失败", e);
                     return null;
-                }
-                // 解析返回的城市列表
-                List<CityInfo> cityList = JSON.parseArray(locationArray.toJSONString(), CityInfo.class);
-
-                // 根据 rank 字段找到最优匹配
-                Optional<CityInfo> bestMatch = cityList.stream()
-                        .min(Comparator.comparingInt(CityInfo::getRank));
-
-                return bestMatch.map(CityInfo::getId).orElse(null);
-            }
-        } catch (Exception e) {
-            log.error("获取城市ID失败", e);
-        }
-        return null;
+                });
     }
 
-    /**
-     * 获取实时天气
-     */
-    private WeatherInfo getRealtimeWeather(String locationId) {
-        String url = "https://" + weatherApiHost + "/v7/weather/now?location=" + locationId;
-
-        try {
-            String result = HttpRequest.get(url)
-                    .header("Authorization", "Bearer " + jwt)
-                    .header("Accept-Encoding", "gzip, deflate")
-                    .execute()
-                    .body();
-
-            log.info("查询实时天气: {}, 返回: {}", locationId, result);
-
-            JSONObject jsonObject = JSON.parseObject(result);
-            if ("200".equals(jsonObject.getString("code"))) {
-                JSONObject now = jsonObject.getJSONObject("now");
-                return JSON.parseObject(now.toJSONString(), WeatherInfo.class);
-            }
-        } catch (Exception e) {
-            log.error("获取实时天气失败", e);
-        }
-        return null;
+    private Map<String, String> authorizationHeader() {
+        return Map.of("Authorization", "Bearer " + jwtTokenProvider.getToken());
     }
-} 
\ No newline at end of file
+}
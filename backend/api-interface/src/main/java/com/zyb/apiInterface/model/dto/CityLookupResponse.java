@@ -0,0 +1,22 @@
+package com.zyb.apiInterface.model.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 城市查询接口（/geo/v2/city/lookup）返回值
+ */
+@Data
+public class CityLookupResponse {
+
+    /**
+     * 状态码，200 表示成功
+     */
+    private String code;
+
+    /**
+     * 匹配的城市列表
+     */
+    private List<CityInfo> location;
+}
@@ -0,0 +1,20 @@
+package com.zyb.apiInterface.model.dto;
+
+import lombok.Data;
+
+/**
+ * 实时天气接口（/v7/weather/now）返回值
+ */
+@Data
+public class WeatherNowResponse {
+
+    /**
+     * 状态码，200 表示成功
+     */
+    private String code;
+
+    /**
+     * 实时天气
+     */
+    private WeatherInfo now;
+}
@@ -0,0 +1,57 @@
+package com.zyb.apiInterface.model.vo;
+
+import com.alibaba.fastjson2.annotation.JSONField;
+import com.zyb.apiInterface.model.dto.WeatherInfo;
+import lombok.Data;
+
+/**
+ * 天气接口返回值，字段名为中文
+ */
+@Data
+public class WeatherVO {
+
+    @JSONField(name = "数据观测时间", ordinal = 1)
+    private String obsTime;
+
+    @JSONField(name = "温度", ordinal = 2)
+    private String temp;
+
+    @JSONField(name = "体感温度", ordinal = 3)
+    private String feelsLike;
+
+    @JSONField(name = "天气状况", ordinal = 4)
+    private String text;
+
+    @JSONField(name = "风向", ordinal = 5)
+    private String windDir;
+
+    @JSONField(name = "风力等级", ordinal = 6)
+    private String windScale;
+
+    @JSONField(name = "相对湿度", ordinal = 7)
+    private String humidity;
+
+    @JSONField(name = "当前小时累计降水量", ordinal = 8)
+    private String precip;
+
+    @JSONField(name = "大气压强", ordinal = 9)
+    private String pressure;
+
+    @JSONField(name = "能见度", ordinal = 10)
+    private String vis;
+
+    public static WeatherVO from(WeatherInfo weatherInfo) {
+        WeatherVO weatherVO = new WeatherVO();
+        weatherVO.setObsTime(weatherInfo.getObsTime());
+        weatherVO.setTemp(weatherInfo.getTemp());
+        weatherVO.setFeelsLike(weatherInfo.getFeelsLike());
+        weatherVO.setText(weatherInfo.getText());
+        weatherVO.setWindDir(weatherInfo.getWindDir());
+        weatherVO.setWindScale(weatherInfo.getWindScale());
+        weatherVO.setHumidity(weatherInfo.getHumidity());
+        weatherVO.setPrecip(weatherInfo.getPrecip());
+        weatherVO.setPressure(weatherInfo.getPressure());
+        weatherVO.setVis(weatherInfo.getVis());
+        return weatherVO;
+    }
+}
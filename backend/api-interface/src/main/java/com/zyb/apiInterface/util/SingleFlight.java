@@ -0,0 +1,40 @@
+package com.zyb.apiInterface.util;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 合并相同 key 的并发调用
+ * <p>
+ * 同一时刻同一 key 只有第一个调用方真正发起调用，其余调用方共享它的结果或异常；
+ * 调用结束后立即移除，不缓存结果，之后的调用会重新发起。
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            // 返回副本，单个调用方取消或超时不影响其他调用方
+            return existing.copy();
+        }
+        CompletableFuture<V> source;
+        try {
+            source = loader.get();
+        } catch (Throwable e) {
+            source = CompletableFuture.failedFuture(e);
+        }
+        source.whenComplete((value, e) -> {
+            inFlight.remove(key, future);
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(value);
+            }
+        });
+        return future.copy();
+    }
+}
@@ -0,0 +1,126 @@
+package com.zyb.apiInterface.benchmark;
+
+import com.alibaba.fastjson2.JSON;
+import com.alibaba.fastjson2.JSONArray;
+import com.alibaba.fastjson2.JSONObject;
+import com.zyb.apiInterface.model.dto.CityInfo;
+import com.zyb.apiInterface.model.dto.CityLookupResponse;
+import com.zyb.apiInterface.model.dto.WeatherInfo;
+import com.zyb.apiInterface.model.dto.WeatherNowResponse;
+import com.zyb.apiInterface.model.vo.WeatherVO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 天气接口 JSON 处理基准：旧版先解析为 JSONObject 再序列化、二次解析，新版直接绑定到 DTO
+ * <p>
+ * 运行：mvn test-compile 后执行本类的 main 方法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeatherJsonBenchmark {
+
+    private static final String CITY_LOOKUP_RESPONSE = "{\"code\":\"200\",\"location\":["
+            + "{\"name\":\"北京\",\"id\":\"101010100\",\"lat\":\"39.90499\",\"lon\":\"116.40529\",\"adm2\":\"北京\","
+            + "\"adm1\":\"北京市\",\"country\":\"中国\",\"tz\":\"Asia/Shanghai\",\"utcOffset\":\"+08:00\","
+            + "\"isDst\":\"0\",\"type\":\"city\",\"rank\":\"10\",\"fxLink\":\"https://www.qweather.com/weather/beijing-101010100.html\"},"
+            + "{\"name\":\"海淀\",\"id\":\"101010200\",\"lat\":\"39.95607\",\"lon\":\"116.31032\",\"adm2\":\"北京\","
+            + "\"adm1\":\"北京市\",\"country\":\"中国\",\"tz\":\"Asia/Shanghai\",\"utcOffset\":\"+08:00\","
+            + "\"isDst\":\"0\",\"type\":\"city\",\"rank\":\"15\",\"fxLink\":\"https://www.qweather.com/weather/haidian-101010200.html\"},"
+            + "{\"name\":\"朝阳\",\"id\":\"101010300\",\"lat\":\"39.92149\",\"lon\":\"116.48641\",\"adm2\":\"北京\","
+            + "\"adm1\":\"北京市\",\"country\":\"中国\",\"tz\":\"Asia/Shanghai\",\"utcOffset\":\"+08:00\","
+            + "\"isDst\":\"0\",\"type\":\"city\",\"rank\":\"15\",\"fxLink\":\"https://www.qweather.com/weather/chaoyang-101010300.html\"}"
+            + "],\"refer\":{\"sources\":[\"QWeather\"],\"license\":[\"QWeather Developers License\"]}}";
+
+    private static final String WEATHER_NOW_RESPONSE = "{\"code\":\"200\",\"updateTime\":\"2024-07-15T16:22+08:00\","
+            + "\"fxLink\":\"https://www.qweather.com/weather/beijing-101010100.html\",\"now\":{"
+            + "\"obsTime\":\"2024-07-15T16:15+08:00\",\"temp\":\"31\",\"feelsLike\":\"34\",\"icon\":\"101\",\"text\":\"多云\","
+            + "\"wind360\":\"180\",\"windDir\":\"南风\",\"windScale\":\"2\",\"windSpeed\":\"9\",\"humidity\":\"62\","
+            + "\"precip\":\"0.0\",\"pressure\":\"1002\",\"vis\":\"18\",\"cloud\":\"91\",\"dew\":\"23\"},"
+            + "\"refer\":{\"sources\":[\"QWeather\"],\"license\":[\"QWeather Developers License\"]}}";
+
+    @Setup
+    public void verify() {
+        if (!legacyLocationId().equals(directLocationId()) || !legacyWeather().equals(directWeather())) {
+            throw new IllegalStateException("新旧实现结果不一致");
+        }
+    }
+
+    @Benchmark
+    public String legacyLocationId() {
+        JSONObject jsonObject = JSON.parseObject(CITY_LOOKUP_RESPONSE);
+        if (!"200".equals(jsonObject.getString("code"))) {
+            return null;
+        }
+        JSONArray locationArray = jsonObject.getJSONArray("location");
+        List<CityInfo> cityList = JSON.parseArray(locationArray.toJSONString(), CityInfo.class);
+        return cityList.stream().min(Comparator.comparingInt(CityInfo::getRank)).map(CityInfo::getId).orElse(null);
+    }
+
+    @Benchmark
+    public String directLocationId() {
+        CityLookupResponse response = JSON.parseObject(CITY_LOOKUP_RESPONSE, CityLookupResponse.class);
+        if (!"200".equals(response.getCode())) {
+            return null;
+        }
+        return response.getLocation().stream()
+                .min(Comparator.comparingInt(CityInfo::getRank)).map(CityInfo::getId).orElse(null);
+    }
+
+    @Benchmark
+    public String legacyWeather() {
+        JSONObject jsonObject = JSON.parseObject(WEATHER_NOW_RESPONSE);
+        if (!"200".equals(jsonObject.getString("code"))) {
+            return null;
+        }
+        JSONObject now = jsonObject.getJSONObject("now");
+        WeatherInfo weatherInfo = JSON.parseObject(now.toJSONString(), WeatherInfo.class);
+
+        JSONObject chineseKeyJson = new JSONObject();
+        chineseKeyJson.put("数据观测时间", weatherInfo.getObsTime());
+        chineseKeyJson.put("温度", weatherInfo.getTemp());
+        chineseKeyJson.put("体感温度", weatherInfo.getFeelsLike());
+        chineseKeyJson.put("天气状况", weatherInfo.getText());
+        chineseKeyJson.put("风向", weatherInfo.getWindDir());
+        chineseKeyJson.put("风力等级", weatherInfo.getWindScale());
+        chineseKeyJson.put("相对湿度", weatherInfo.getHumidity());
+        chineseKeyJson.put("当前小时累计降水量", weatherInfo.getPrecip());
+        chineseKeyJson.put("大气压强", weatherInfo.getPressure());
+        chineseKeyJson.put("能见度", weatherInfo.getVis());
+        return JSON.toJSONString(chineseKeyJson);
+    }
+
+    @Benchmark
+    public String directWeather() {
+        WeatherNowResponse response = JSON.parseObject(WEATHER_NOW_RESPONSE, WeatherNowResponse.class);
+        if (!"200".equals(response.getCode())) {
+            return null;
+        }
+        return JSON.toJSONString(WeatherVO.from(response.getNow()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WeatherJsonBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
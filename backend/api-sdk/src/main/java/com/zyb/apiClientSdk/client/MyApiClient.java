@@ -3,6 +3,7 @@ package com.zyb.apiClientSdk.client;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.http.HttpRequest;
 import cn.hutool.http.HttpResponse;
+import cn.hutool.http.HttpUtil;
 import cn.hutool.json.JSONUtil;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.zyb.apiClientSdk.builder.ApiRequestBuilder;
@@ -11,8 +12,11 @@ import com.zyb.apiClientSdk.common.ResponseParser;
 import com.zyb.apiClientSdk.utils.SignUtils;
 import lombok.extern.slf4j.Slf4j;
 
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -50,7 +54,7 @@ public class MyApiClient {
         try {
             String json = JSONUtil.toJsonStr(params);
             HttpResponse httpResponse = HttpRequest.post(path)
-                    .addHeaders(getHeaderMap(json))
+                    .addHeaders(getHeaderMap("POST", path, null, json))
                     .body(json)
                     .charset(StandardCharsets.UTF_8)
                     .execute();
@@ -71,7 +75,7 @@ public class MyApiClient {
         try {
             // GET请求使用空字符串参与签名
             HttpRequest request = HttpRequest.get(path)
-                    .addHeaders(getHeaderMap(""));
+                    .addHeaders(getHeaderMap("GET", path, params, ""));
 
             if (params != null && !params.isEmpty()) {
                 request.form(params);
@@ -94,7 +98,7 @@ public class MyApiClient {
         try {
             String json = JSONUtil.toJsonStr(params);
             HttpResponse httpResponse = HttpRequest.post(path)
-                    .addHeaders(getHeaderMap(json))
+                    .addHeaders(getHeaderMap("POST", path, null, json))
                     .body(json)
                     .execute();
             
@@ -113,16 +117,35 @@ public class MyApiClient {
 
     /**
      * 获取请求头的映射
-     * @param body 请求体内容
+     * @param method 请求方法
+     * @param url 请求地址
+     * @param queryParams 追加到查询串的参数
+     * @param body 请求体内容（只参与签名，不放入请求头）
      * @return 包含请求头参数的哈希映射
      */
-    private Map<String, String> getHeaderMap(String body) {
+    private Map<String, String> getHeaderMap(String method, String url, Map<String, Object> queryParams, String body) {
+        String nonce = RandomUtil.randomString(16);
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+
+        // 签名使用解码后的查询参数，与实际发送时的编码方式无关
+        URI uri = URI.create(url);
+        Map<String, List<Object>> query = new HashMap<>();
+        if (uri.getRawQuery() != null) {
+            HttpUtil.decodeParams(uri.getRawQuery(), StandardCharsets.UTF_8)
+                    .forEach((key, values) -> query.computeIfAbsent(key, k -> new ArrayList<>()).addAll(values));
+        }
+        if (queryParams != null) {
+            queryParams.forEach((key, value) -> query.computeIfAbsent(key, k -> new ArrayList<>()).add(value));
+        }
+        String sign = SignUtils.genSignV2(secretKey, method, uri.getRawPath(), SignUtils.canonicalQuery(query),
+                timestamp, nonce, SignUtils.sha256Hex(body));
+
         Map<String, String> hashMap = new HashMap<>();
         hashMap.put("accessKey", accessKey);
-        hashMap.put("nonce", RandomUtil.randomNumbers(4));
-        hashMap.put("body", body);
-        hashMap.put("timestamp", String.valueOf(System.currentTimeMillis() / 1000));
-        hashMap.put("sign", SignUtils.genSign(body, secretKey));
+        hashMap.put("nonce", nonce);
+        hashMap.put("timestamp", timestamp);
+        hashMap.put(SignUtils.SIGN_VERSION_HEADER, SignUtils.SIGN_VERSION_HMAC_SHA256);
+        hashMap.put("sign", sign);
         hashMap.put("Content-Type", "application/json;charset=UTF-8");
 
         return hashMap;
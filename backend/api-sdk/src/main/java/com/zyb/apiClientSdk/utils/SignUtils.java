@@ -1,24 +1,170 @@
 package com.zyb.apiClientSdk.utils;
 
-import cn.hutool.crypto.digest.DigestAlgorithm;
-import cn.hutool.crypto.digest.Digester;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * 签名工具
+ * <p>
+ * 版本 1（旧版）：MD5(body + "." + secretKey)；
+ * 版本 2：HMAC-SHA256(secretKey, 规范请求串)，规范请求串为
+ * method + "\n" + path + "\n" + 规范查询串 + "\n" + timestamp + "\n" + nonce + "\n" + SHA256(body)，
+ * 规范查询串为解码后的参数按 key、value 排序后以 k=v 用 &amp; 连接。
  */
 public class SignUtils {
 
     /**
-     * 生成签名
-     * @param body 包含需要签名的参数的哈希映射
+     * 签名版本请求头
+     */
+    public static final String SIGN_VERSION_HEADER = "signVersion";
+
+    /**
+     * 旧版 MD5 签名
+     */
+    public static final String SIGN_VERSION_MD5 = "1";
+
+    /**
+     * HMAC-SHA256 签名
+     */
+    public static final String SIGN_VERSION_HMAC_SHA256 = "2";
+
+    private static final String HMAC_SHA256 = "HmacSHA256";
+
+    /**
+     * 每个线程缓存的 Mac 实例数量上限（按密钥）
+     */
+    private static final int MAC_CACHE_SIZE = 16;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final ThreadLocal<MessageDigest> MD5 = ThreadLocal.withInitial(() -> newDigest("MD5"));
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> newDigest("SHA-256"));
+
+    private static final ThreadLocal<Map<String, Mac>> MACS = ThreadLocal.withInitial(
+            () -> new LinkedHashMap<>(MAC_CACHE_SIZE, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Mac> eldest) {
+                    return size() > MAC_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * 生成旧版（MD5）签名
+     * @param body 请求体
      * @param secretKey 密钥
      * @return 生成的签名字符串
      */
     public static String genSign(String body, String secretKey) {
-        Digester md5 = new Digester(DigestAlgorithm.MD5);
-        // 构建签名内容，将body和密钥拼接在一起
-        String content = body + "." + secretKey;
-        // 计算签名的摘要并返回摘要的十六进制表示形式
-        return md5.digestHex(content);
+        MessageDigest md5 = MD5.get();
+        // 依次写入 body、分隔符和密钥，等价于对 body + "." + secretKey 求摘要
+        md5.update(body.getBytes(StandardCharsets.UTF_8));
+        md5.update((byte) '.');
+        md5.update(secretKey.getBytes(StandardCharsets.UTF_8));
+        return toHex(md5.digest());
+    }
+
+    /**
+     * 生成 HMAC-SHA256 签名
+     * @param secretKey 密钥
+     * @param method 请求方法
+     * @param path 请求路径（不含域名和查询串）
+     * @param canonicalQuery 规范查询串，见 {@link #canonicalQuery(Map)}
+     * @param timestamp 时间戳
+     * @param nonce 随机数
+     * @param bodyHash 请求体的 SHA256 十六进制摘要，见 {@link #sha256Hex(byte[])}
+     * @return 生成的签名字符串
+     */
+    public static String genSignV2(String secretKey, String method, String path, String canonicalQuery,
+                                   String timestamp, String nonce, String bodyHash) {
+        String canonicalRequest = method.toUpperCase() + '\n' + path + '\n' + canonicalQuery + '\n'
+                + timestamp + '\n' + nonce + '\n' + bodyHash;
+        return toHex(getMac(secretKey).doFinal(canonicalRequest.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    /**
+     * 构建规范查询串，参数应为解码后的值
+     */
+    public static String canonicalQuery(Map<String, ? extends Collection<?>> params) {
+        if (params == null || params.isEmpty()) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, ? extends Collection<?>> entry : new TreeMap<>(params).entrySet()) {
+            List<String> values = new ArrayList<>();
+            for (Object value : entry.getValue()) {
+                values.add(value == null ? "" : value.toString());
+            }
+            values.sort(null);
+            for (String value : values) {
+                if (builder.length() > 0) {
+                    builder.append('&');
+                }
+                builder.append(entry.getKey()).append('=').append(value);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 计算 SHA256 十六进制摘要
+     */
+    public static String sha256Hex(byte[] data) {
+        return toHex(SHA256.get().digest(data));
+    }
+
+    /**
+     * 计算字符串（UTF-8）的 SHA256 十六进制摘要
+     */
+    public static String sha256Hex(String data) {
+        return sha256Hex(data.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 获取当前线程中该密钥对应的 Mac 实例，不存在时创建并初始化
+     */
+    private static Mac getMac(String secretKey) {
+        Map<String, Mac> macs = MACS.get();
+        Mac mac = macs.get(secretKey);
+        if (mac == null) {
+            try {
+                mac = Mac.getInstance(HMAC_SHA256);
+                mac.init(new SecretKeySpec(secretKey.getBytes(StandardCharsets.UTF_8), HMAC_SHA256));
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("初始化HMAC-SHA256失败", e);
+            }
+            macs.put(secretKey, mac);
+        }
+        return mac;
+    }
+
+    private static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("不支持的摘要算法: " + algorithm, e);
+        }
+    }
+
+    /**
+     * 转为小写十六进制字符串
+     */
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            chars[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(chars);
     }
 }
@@ -36,6 +36,9 @@ create table if not exists interface_info
     `responseHeader` text null comment '响应头',
     `status` int default 0 not null comment '接口状态（0-关闭，1-开启）',
     `method` varchar(256) not null comment '请求类型',
+    `qpsLimit` int null comment '每秒调用上限（为空表示不限制）',
+    `cacheable` tinyint default 0 not null comment '网关是否缓存响应（0-否，1-是，仅 GET 接口）',
+    `cacheTtl` int null comment '响应缓存时长（秒）',
     `userId` bigint not null comment '创建人',
     `createTime` datetime default CURRENT_TIMESTAMP not null comment '创建时间',
     `updateTime` datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
@@ -56,7 +59,15 @@ create table if not exists user_interface_info
     `isDelete` tinyint default 0 not null comment '是否删除(0-未删, 1-已删)'
 ) comment '用户调用接口关系';
 
+-- 网关计费批次（批量计费幂等，重试的批次不重复记账）
+create table if not exists billing_batch
+(
+    `batchId` varchar(64) not null comment '批次 id' primary key,
+    `createTime` datetime default CURRENT_TIMESTAMP not null comment '创建时间'
+) comment '网关计费批次';
+
 
 CREATE UNIQUE INDEX idx_accessKey ON `user` (accessKey);
 CREATE INDEX idx_url_method ON interface_info (url, method);
+CREATE UNIQUE INDEX uni_userId_interfaceInfoId ON user_interface_info (userId, interfaceInfoId);
 
@@ -7,6 +7,7 @@ import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.google.gson.Gson;
 import com.google.gson.reflect.TypeToken;
+import com.zyb.apiClientSdk.utils.SignUtils;
 import com.zyb.apiCommon.model.entity.InterfaceInfo;
 import com.zyb.apiCommon.model.entity.User;
 import com.zyb.backend.annotation.AuthCheck;
@@ -14,6 +15,7 @@ import com.zyb.backend.common.*;
 import com.zyb.backend.constant.CommonConstant;
 import com.zyb.backend.constant.UserConstant;
 import com.zyb.backend.exception.BusinessException;
+import com.zyb.backend.manager.CacheInvalidationManager;
 import com.zyb.backend.model.dto.interfaceinfo.InterfaceInfoAddRequest;
 import com.zyb.backend.model.dto.interfaceinfo.InterfaceInfoInvokeRequest;
 import com.zyb.backend.model.dto.interfaceinfo.InterfaceInfoQueryRequest;
@@ -28,6 +30,8 @@ import org.springframework.beans.BeanUtils;
 
 import org.springframework.web.bind.annotation.*;
 
+import java.net.URI;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +54,9 @@ public class InterfaceInfoController {
     @Resource
     private UserService userService;
 
+    @Resource
+    private CacheInvalidationManager cacheInvalidationManager;
+
     /**
      * 创建
      */
@@ -68,6 +75,8 @@ public class InterfaceInfoController {
         if (!result) {
             throw new BusinessException(ErrorCode.OPERATION_ERROR);
         }
+        // 清理网关中可能存在的“接口不存在”负缓存
+        cacheInvalidationManager.publishInterface(interfaceInfo);
         long newInterfaceInfoId = interfaceInfo.getId();
         return ResultUtils.success(newInterfaceInfoId);
     }
@@ -92,6 +101,7 @@ public class InterfaceInfoController {
             throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
         }
         boolean b = interfaceInfoService.removeById(id);
+        cacheInvalidationManager.publishInterface(oldInterfaceInfo);
         return ResultUtils.success(b);
     }
 
@@ -120,6 +130,9 @@ public class InterfaceInfoController {
             throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
         }
         boolean result = interfaceInfoService.updateById(interfaceInfo);
+        // 地址或请求类型可能被修改，新旧两个缓存 key 都需要失效
+        cacheInvalidationManager.publishInterface(oldInterfaceInfo);
+        cacheInvalidationManager.publishInterface(interfaceInfoService.getById(id));
         return ResultUtils.success(result);
     }
 
@@ -251,12 +264,7 @@ public class InterfaceInfoController {
             bodyForSign = "{}"; // 其他请求使用空JSON对象
         }
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put("accessKey", accessKey);
-        headers.put("nonce", RandomUtil.randomNumbers(4));
-        headers.put("body", bodyForSign);
-        headers.put("timestamp", String.valueOf(System.currentTimeMillis() / 1000));
-        headers.put("sign", com.zyb.apiClientSdk.utils.SignUtils.genSign(bodyForSign, secretKey));
+        Map<String, String> headers = buildSignHeaders(accessKey, secretKey, method, url, null, bodyForSign);
 
         HttpResponse httpResponse;
 
@@ -284,6 +292,7 @@ public class InterfaceInfoController {
         interfaceInfo.setId(id);
         interfaceInfo.setStatus(ONLINE.getValue());
         boolean result = interfaceInfoService.updateById(interfaceInfo);
+        cacheInvalidationManager.publishInterface(oldInterfaceInfo);
 
         return ResultUtils.success(result);
     }
@@ -307,6 +316,7 @@ public class InterfaceInfoController {
         interfaceInfo.setId(id);
         interfaceInfo.setStatus(OFFLINE.getValue());
         boolean result = interfaceInfoService.updateById(interfaceInfo);
+        cacheInvalidationManager.publishInterface(oldInterfaceInfo);
 
         return ResultUtils.success(result);
     }
@@ -344,29 +354,29 @@ public class InterfaceInfoController {
         if ("GET".equalsIgnoreCase(method)) {
             bodyForSign = ""; // GET请求使用空字符串参与签名
         } else {
-            bodyForSign = userRequestParams; // 其他请求使用实际参数
+            bodyForSign = StringUtils.defaultString(userRequestParams); // 其他请求使用实际参数
         }
 
-        Map<String, String> headers = new HashMap<>();
-        headers.put("accessKey", accessKey);
-        headers.put("nonce", RandomUtil.randomNumbers(4));
-        headers.put("body", bodyForSign);
-        headers.put("timestamp", String.valueOf(System.currentTimeMillis() / 1000));
-        headers.put("sign", com.zyb.apiClientSdk.utils.SignUtils.genSign(bodyForSign, secretKey));
+        // GET请求的参数作为查询参数发送，需要参与签名
+        Map<String, Object> params = null;
+        if ("GET".equalsIgnoreCase(method) && userRequestParams != null && !userRequestParams.trim().isEmpty()) {
+            Gson gson = new Gson();
+            params = gson.fromJson(userRequestParams, new TypeToken<Map<String, Object>>() {}.getType());
+        }
+
+        Map<String, String> headers = buildSignHeaders(accessKey, secretKey, method, url, params, bodyForSign);
 
         HttpResponse httpResponse;
 
         if ("POST".equalsIgnoreCase(method)) {
             httpResponse = HttpRequest.post(url)
                     .addHeaders(headers)
-                    .body(userRequestParams)
+                    .body(bodyForSign)
                     .execute();
         } else if ("GET".equalsIgnoreCase(method)) {
             // GET请求处理
-            if (userRequestParams != null && !userRequestParams.trim().isEmpty()) {
-                // 如果有参数，解析为查询参数
-                Gson gson = new Gson();
-                Map<String, Object> params = gson.fromJson(userRequestParams, new TypeToken<Map<String, Object>>() {}.getType());
+            if (params != null) {
+                // 如果有参数，作为查询参数发送
                 httpResponse = HttpRequest.get(url)
                         .addHeaders(headers)
                         .form(params)
@@ -385,4 +395,26 @@ public class InterfaceInfoController {
         return ResultUtils.success(httpResponse.body());
     }
 
-} 
\ No newline at end of file
+    /**
+     * 构建调用网关所需的签名请求头（HMAC-SHA256）
+     */
+    private Map<String, String> buildSignHeaders(String accessKey, String secretKey, String method, String url,
+                                                 Map<String, Object> queryParams, String body) {
+        String nonce = RandomUtil.randomString(16);
+        String timestamp = String.valueOf(System.currentTimeMillis() / 1000);
+        Map<String, List<Object>> query = new HashMap<>();
+        if (queryParams != null) {
+            queryParams.forEach((key, value) -> query.put(key, Collections.singletonList(value)));
+        }
+        String sign = SignUtils.genSignV2(secretKey, method, URI.create(url).getRawPath(),
+                SignUtils.canonicalQuery(query), timestamp, nonce, SignUtils.sha256Hex(body));
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("accessKey", accessKey);
+        headers.put("nonce", nonce);
+        headers.put("timestamp", timestamp);
+        headers.put(SignUtils.SIGN_VERSION_HEADER, SignUtils.SIGN_VERSION_HMAC_SHA256);
+        headers.put("sign", sign);
+        return headers;
+    }
+}
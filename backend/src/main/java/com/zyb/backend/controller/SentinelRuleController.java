@@ -0,0 +1,52 @@
+package com.zyb.backend.controller;
+
+import com.zyb.apiCommon.model.dto.SentinelRuleSet;
+import com.zyb.backend.annotation.AuthCheck;
+import com.zyb.backend.common.BaseResponse;
+import com.zyb.backend.common.ResultUtils;
+import com.zyb.backend.constant.UserConstant;
+import com.zyb.backend.manager.SentinelRuleManager;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * 网关限流熔断规则管理
+ */
+@RestController
+@RequestMapping("/sentinel/rule")
+@Slf4j
+public class SentinelRuleController {
+
+    @Resource
+    private SentinelRuleManager sentinelRuleManager;
+
+    /**
+     * 获取当前规则集（为空表示网关使用默认规则）
+     */
+    @GetMapping("/get")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<SentinelRuleSet> getRuleSet() {
+        return ResultUtils.success(sentinelRuleManager.getRuleSet());
+    }
+
+    /**
+     * 更新规则集（整体替换）
+     */
+    @PostMapping("/update")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Boolean> updateRuleSet(@RequestBody SentinelRuleSet ruleSet) {
+        sentinelRuleManager.saveRuleSet(ruleSet);
+        return ResultUtils.success(true);
+    }
+
+    /**
+     * 重置为网关默认规则
+     */
+    @PostMapping("/reset")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    public BaseResponse<Boolean> resetRuleSet() {
+        sentinelRuleManager.resetRuleSet();
+        return ResultUtils.success(true);
+    }
+}
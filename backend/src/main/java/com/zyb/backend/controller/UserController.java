@@ -13,6 +13,7 @@ import com.zyb.backend.common.ResultUtils;
 import com.zyb.backend.constant.UserConstant;
 import com.zyb.backend.exception.BusinessException;
 import com.zyb.backend.exception.ThrowUtils;
+import com.zyb.backend.manager.CacheInvalidationManager;
 import com.zyb.backend.model.dto.user.*;
 import com.zyb.backend.model.vo.LoginUserVO;
 import com.zyb.backend.service.UserService;
@@ -42,6 +43,9 @@ public class UserController {
     @Resource
     private PasswordEncoder passwordEncoder;
 
+    @Resource
+    private CacheInvalidationManager cacheInvalidationManager;
+
     // region 登录相关
 
     /**
@@ -110,6 +114,8 @@ public class UserController {
         user.setSecretKey(secretKey);
 
         boolean result = userService.updateById(user);
+        // 旧的 accessKey 需要立即在网关失效
+        cacheInvalidationManager.publishUser(loginUser);
         return ResultUtils.success(result);
     }
 
@@ -156,7 +162,9 @@ public class UserController {
         if (deleteRequest == null || deleteRequest.getId() <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
+        User oldUser = userService.getById(deleteRequest.getId());
         boolean b = userService.removeById(deleteRequest.getId());
+        cacheInvalidationManager.publishUser(oldUser);
         return ResultUtils.success(b);
     }
 
@@ -169,10 +177,12 @@ public class UserController {
         if (userUpdateRequest == null || userUpdateRequest.getId() == null) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
+        User oldUser = userService.getById(userUpdateRequest.getId());
         User user = new User();
         BeanUtils.copyProperties(userUpdateRequest, user);
         boolean result = userService.updateById(user);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        cacheInvalidationManager.publishUser(oldUser);
         return ResultUtils.success(true);
     }
 
@@ -259,6 +269,7 @@ public class UserController {
         user.setBalance(currentBalance.add(amountToAdd));
 
         boolean result = userService.updateById(user);
+        cacheInvalidationManager.publishUser(user);
         return ResultUtils.success(result);
     }
 
@@ -277,6 +288,7 @@ public class UserController {
         user.setId(loginUser.getId());
         boolean result = userService.updateById(user);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        cacheInvalidationManager.publishUser(loginUser);
         return ResultUtils.success(true);
     }
 }
@@ -15,6 +15,7 @@ import com.zyb.backend.common.IdRequest;
 import com.zyb.backend.constant.CommonConstant;
 import com.zyb.backend.constant.UserConstant;
 import com.zyb.backend.exception.BusinessException;
+import com.zyb.backend.manager.CacheInvalidationManager;
 import com.zyb.backend.model.dto.interfaceinfo.InterfaceInfoQueryRequest;
 import com.zyb.backend.model.dto.userinterfaceinfo.UserInterfaceInfoAddRequest;
 import com.zyb.backend.model.dto.userinterfaceinfo.UserInterfaceInfoPurchaseRequest;
@@ -50,6 +51,9 @@ public class UserInterfaceInfoController {
     @Resource
     private InterfaceInfoService interfaceInfoService;
 
+    @Resource
+    private CacheInvalidationManager cacheInvalidationManager;
+
     /**
      * 创建
      */
@@ -69,6 +73,7 @@ public class UserInterfaceInfoController {
         if (!result) {
             throw new BusinessException(ErrorCode.OPERATION_ERROR);
         }
+        cacheInvalidationManager.publishUserInterface(userInterfaceInfo.getUserId(), userInterfaceInfo.getInterfaceInfoId());
         long newUserInterfaceInfoId = userInterfaceInfo.getId();
         return ResultUtils.success(newUserInterfaceInfoId);
     }
@@ -110,6 +115,7 @@ public class UserInterfaceInfoController {
             throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
         }
         boolean b = userInterfaceInfoService.removeById(id);
+        cacheInvalidationManager.publishUserInterface(oldInterfaceInfo.getUserId(), oldInterfaceInfo.getInterfaceInfoId());
         return ResultUtils.success(b);
     }
 
@@ -139,6 +145,7 @@ public class UserInterfaceInfoController {
             throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
         }
         boolean result = userInterfaceInfoService.updateById(userInterfaceInfo);
+        cacheInvalidationManager.publishUserInterface(oldUserInterfaceInfo.getUserId(), oldUserInterfaceInfo.getInterfaceInfoId());
         return ResultUtils.success(result);
     }
 
@@ -273,11 +280,18 @@ public class UserInterfaceInfoController {
             if (existUserInterfaceInfo.getRemainNum() != -1) {
                 existUserInterfaceInfo.setRemainNum(-1); // 设置为无限次调用
                 userInterfaceInfoService.updateById(existUserInterfaceInfo);
+                cacheInvalidationManager.publishUserInterface(userId, interfaceInfoId);
                 return ResultUtils.success(true);
             }
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "已开通该接口且为无限次调用");
         }
         
+        // 曾经开通后被删除：唯一索引包含已删除记录，恢复原记录而不是新增
+        if (userInterfaceInfoService.restoreDeleted(userId, interfaceInfoId, -1)) {
+            cacheInvalidationManager.publishUserInterface(userId, interfaceInfoId);
+            return ResultUtils.success(true);
+        }
+
         // 创建新的用户接口关系
         UserInterfaceInfo userInterfaceInfo = new UserInterfaceInfo();
         userInterfaceInfo.setUserId(userId);
@@ -287,6 +301,7 @@ public class UserInterfaceInfoController {
         userInterfaceInfo.setStatus(0); // 正常状态
         
         boolean result = userInterfaceInfoService.save(userInterfaceInfo);
+        cacheInvalidationManager.publishUserInterface(userId, interfaceInfoId);
         return ResultUtils.success(result);
     }
 
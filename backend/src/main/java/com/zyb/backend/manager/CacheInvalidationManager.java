@@ -0,0 +1,80 @@
+package com.zyb.backend.manager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyb.apiCommon.constant.CacheConstant;
+import com.zyb.apiCommon.model.dto.CacheInvalidationEvent;
+import com.zyb.apiCommon.model.entity.InterfaceInfo;
+import com.zyb.apiCommon.model.entity.User;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 网关缓存失效通知
+ * <p>
+ * 用户、接口、用户接口关系被修改后，通过 Redis 发布/订阅通知所有网关节点清理对应缓存。
+ * 在事务中调用时延迟到事务提交后发布，避免网关在提交前重新加载到旧数据。
+ */
+@Slf4j
+@Component
+public class CacheInvalidationManager {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 用户信息变更
+     */
+    public void publishUser(User user) {
+        if (user == null || user.getAccessKey() == null) {
+            return;
+        }
+        publish(CacheInvalidationEvent.ofUser(user.getAccessKey()));
+    }
+
+    /**
+     * 接口信息变更（url、method 需为修改前的值）
+     */
+    public void publishInterface(InterfaceInfo interfaceInfo) {
+        if (interfaceInfo == null) {
+            return;
+        }
+        publish(CacheInvalidationEvent.ofInterface(interfaceInfo.getId(), interfaceInfo.getUrl(), interfaceInfo.getMethod()));
+    }
+
+    /**
+     * 用户接口关系（调用次数、权限）变更
+     */
+    public void publishUserInterface(long userId, long interfaceInfoId) {
+        publish(CacheInvalidationEvent.ofUserInterface(userId, interfaceInfoId));
+    }
+
+    private void publish(CacheInvalidationEvent event) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doPublish(event);
+                }
+            });
+            return;
+        }
+        doPublish(event);
+    }
+
+    private void doPublish(CacheInvalidationEvent event) {
+        try {
+            String message = objectMapper.writeValueAsString(event);
+            stringRedisTemplate.convertAndSend(CacheConstant.CACHE_INVALIDATION_CHANNEL, message);
+            log.debug("发布缓存失效事件: {}", message);
+        } catch (Exception e) {
+            // 通知失败不影响业务，网关缓存会在过期后自行刷新
+            log.error("发布缓存失效事件失败: {}", event, e);
+        }
+    }
+}
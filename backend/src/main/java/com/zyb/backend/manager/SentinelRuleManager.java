@@ -0,0 +1,107 @@
+package com.zyb.backend.manager;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zyb.apiCommon.constant.SentinelRuleConstant;
+import com.zyb.apiCommon.model.dto.SentinelDegradeRule;
+import com.zyb.apiCommon.model.dto.SentinelFlowRule;
+import com.zyb.apiCommon.model.dto.SentinelRuleSet;
+import com.zyb.backend.common.ErrorCode;
+import com.zyb.backend.exception.BusinessException;
+import com.zyb.backend.exception.ThrowUtils;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 网关 Sentinel 规则管理
+ * <p>
+ * 规则集保存在 Redis 中，保存后通过发布/订阅通知网关节点重新加载，无需重启。
+ * 这里只做基本的参数校验，网关加载时还会按 Sentinel 的规则校验，任一规则不合法则整体不生效。
+ */
+@Slf4j
+@Component
+public class SentinelRuleManager {
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * 获取当前规则集，未配置时返回 null（网关使用默认规则）
+     */
+    public SentinelRuleSet getRuleSet() {
+        String json = stringRedisTemplate.opsForValue().get(SentinelRuleConstant.SENTINEL_RULES_KEY);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, SentinelRuleSet.class);
+        } catch (JsonProcessingException e) {
+            log.error("Sentinel规则集解析失败: {}", json, e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "规则集格式错误");
+        }
+    }
+
+    /**
+     * 校验并保存规则集，通知网关重新加载
+     */
+    public void saveRuleSet(SentinelRuleSet ruleSet) {
+        validRuleSet(ruleSet);
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(ruleSet);
+        } catch (JsonProcessingException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "规则集序列化失败");
+        }
+        stringRedisTemplate.opsForValue().set(SentinelRuleConstant.SENTINEL_RULES_KEY, json);
+        stringRedisTemplate.convertAndSend(SentinelRuleConstant.SENTINEL_RULES_CHANNEL, "updated");
+        log.info("Sentinel规则集已更新: 流控规则{}条，熔断规则{}条",
+                ruleSet.getFlowRules().size(), ruleSet.getDegradeRules().size());
+    }
+
+    /**
+     * 删除规则集，网关恢复默认规则
+     */
+    public void resetRuleSet() {
+        stringRedisTemplate.delete(SentinelRuleConstant.SENTINEL_RULES_KEY);
+        stringRedisTemplate.convertAndSend(SentinelRuleConstant.SENTINEL_RULES_CHANNEL, "reset");
+        log.info("Sentinel规则集已重置为默认规则");
+    }
+
+    private void validRuleSet(SentinelRuleSet ruleSet) {
+        ThrowUtils.throwIf(ruleSet == null || ruleSet.getFlowRules() == null || ruleSet.getDegradeRules() == null,
+                ErrorCode.PARAMS_ERROR);
+        for (SentinelFlowRule rule : ruleSet.getFlowRules()) {
+            ThrowUtils.throwIf(rule == null || StringUtils.isBlank(rule.getResource()),
+                    ErrorCode.PARAMS_ERROR, "流控规则资源名不能为空");
+            ThrowUtils.throwIf(rule.getGrade() == null || rule.getGrade() < 0 || rule.getGrade() > 1,
+                    ErrorCode.PARAMS_ERROR, "流控规则阈值类型错误: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getCount() == null || rule.getCount() < 0,
+                    ErrorCode.PARAMS_ERROR, "流控规则阈值错误: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getControlBehavior() == null || rule.getControlBehavior() < 0 || rule.getControlBehavior() > 2,
+                    ErrorCode.PARAMS_ERROR, "流控效果错误: " + rule.getResource());
+        }
+        for (SentinelDegradeRule rule : ruleSet.getDegradeRules()) {
+            ThrowUtils.throwIf(rule == null || StringUtils.isBlank(rule.getResource()),
+                    ErrorCode.PARAMS_ERROR, "熔断规则资源名不能为空");
+            ThrowUtils.throwIf(rule.getGrade() == null || rule.getGrade() < 0 || rule.getGrade() > 2,
+                    ErrorCode.PARAMS_ERROR, "熔断策略错误: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getCount() == null || rule.getCount() < 0,
+                    ErrorCode.PARAMS_ERROR, "熔断阈值错误: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getGrade() == 1 && rule.getCount() > 1,
+                    ErrorCode.PARAMS_ERROR, "异常比例阈值需在0到1之间: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getTimeWindow() == null || rule.getTimeWindow() <= 0,
+                    ErrorCode.PARAMS_ERROR, "熔断时长错误: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getMinRequestAmount() == null || rule.getMinRequestAmount() <= 0
+                            || rule.getStatIntervalMs() == null || rule.getStatIntervalMs() <= 0,
+                    ErrorCode.PARAMS_ERROR, "熔断统计参数错误: " + rule.getResource());
+            ThrowUtils.throwIf(rule.getGrade() == 0 && (rule.getSlowRatioThreshold() == null
+                            || rule.getSlowRatioThreshold() < 0 || rule.getSlowRatioThreshold() > 1),
+                    ErrorCode.PARAMS_ERROR, "慢调用比例阈值需在0到1之间: " + rule.getResource());
+        }
+    }
+}
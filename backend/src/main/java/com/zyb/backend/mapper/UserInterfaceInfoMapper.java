@@ -2,6 +2,7 @@ package com.zyb.backend.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
+import org.apache.ibatis.annotations.Param;
 
 /**
 * @author 张云博
@@ -11,6 +12,44 @@ import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
 */
 public interface UserInterfaceInfoMapper extends BaseMapper<UserInterfaceInfo> {
 
+    /**
+     * 原子地累加调用次数并扣减剩余次数（单条语句，无需先查后改）
+     * 剩余次数最多扣到 0，无限次（-1）保持不变；剩余次数已为 0 时不更新
+     *
+     * @param count 调用次数
+     * @return 影响行数，0 表示未开通或调用次数不足
+     */
+    int invokeCount(@Param("interfaceInfoId") long interfaceInfoId,
+                    @Param("userId") long userId,
+                    @Param("count") int count);
+
+    /**
+     * 记录已经发生的调用：累加调用次数，剩余次数最多扣到 0，无限次（-1）保持不变
+     * 与 {@link #invokeCount} 不同，剩余次数不足时也更新，不丢失调用记录
+     *
+     * @param count 调用次数
+     * @return 影响行数，0 表示未开通
+     */
+    int recordInvokeCount(@Param("interfaceInfoId") long interfaceInfoId,
+                          @Param("userId") long userId,
+                          @Param("count") int count);
+
+    /**
+     * 登记网关计费批次，用于批量计费幂等
+     *
+     * @return 影响行数，0 表示该批次已登记过
+     */
+    int insertBillingBatch(@Param("batchId") String batchId);
+
+    /**
+     * 恢复已逻辑删除的用户接口关系并重置次数
+     * 唯一索引 (userId, interfaceInfoId) 包含已删除记录，重新开通时需要恢复而不是新增
+     *
+     * @return 影响行数，0 表示不存在已删除的记录
+     */
+    int restoreDeleted(@Param("userId") long userId,
+                       @Param("interfaceInfoId") long interfaceInfoId,
+                       @Param("remainNum") int remainNum);
 }
 
 
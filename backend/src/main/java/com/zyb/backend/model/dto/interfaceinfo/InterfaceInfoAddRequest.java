@@ -52,5 +52,20 @@ public class InterfaceInfoAddRequest implements Serializable {
      */
     private String method;
 
+    /**
+     * 每秒调用上限（为空表示不限制）
+     */
+    private Integer qpsLimit;
+
+    /**
+     * 网关是否缓存响应（0-否，1-是，仅 GET 接口）
+     */
+    private Integer cacheable;
+
+    /**
+     * 响应缓存时长（秒）
+     */
+    private Integer cacheTtl;
+
     private static final long serialVersionUID = 1L;
 }
\ No newline at end of file
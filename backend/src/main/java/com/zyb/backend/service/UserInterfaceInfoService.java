@@ -18,4 +18,11 @@ public interface UserInterfaceInfoService extends IService<UserInterfaceInfo> {
     QueryWrapper<UserInterfaceInfo> getQueryWrapper(UserInterfaceInfoQueryRequest userInterfaceInfoQueryRequest);
 
     boolean purchase(long interfaceInfoId, int count, User loginUser);
+
+    /**
+     * 恢复已逻辑删除的用户接口关系（重置调用次数）
+     *
+     * @return 是否存在并恢复了已删除的记录
+     */
+    boolean restoreDeleted(long userId, long interfaceInfoId, int remainNum);
 } 
\ No newline at end of file
@@ -8,6 +8,7 @@ import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
 import com.zyb.backend.common.ErrorCode;
 import com.zyb.backend.constant.UserConstant;
 import com.zyb.backend.exception.BusinessException;
+import com.zyb.backend.manager.CacheInvalidationManager;
 import com.zyb.backend.mapper.InterfaceInfoMapper;
 import com.zyb.backend.service.InterfaceInfoService;
 import com.zyb.backend.service.UserInterfaceInfoService;
@@ -36,6 +37,9 @@ public class InterfaceInfoServiceImpl extends ServiceImpl<InterfaceInfoMapper, I
     @Resource
     private UserInterfaceInfoService userInterfaceInfoService;
 
+    @Resource
+    private CacheInvalidationManager cacheInvalidationManager;
+
     @Override
     public void validInterfaceInfo(InterfaceInfo interfaceInfo, boolean add) {
         if (interfaceInfo == null) {
@@ -52,6 +56,28 @@ public class InterfaceInfoServiceImpl extends ServiceImpl<InterfaceInfoMapper, I
         if (StringUtils.isNotBlank(name) && name.length() > 50) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "名称过长");
         }
+        Integer qpsLimit = interfaceInfo.getQpsLimit();
+        if (qpsLimit != null && qpsLimit <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "每秒调用上限必须大于0");
+        }
+        Integer cacheTtl = interfaceInfo.getCacheTtl();
+        if (cacheTtl != null && cacheTtl <= 0) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "响应缓存时长必须大于0");
+        }
+        Integer cacheable = interfaceInfo.getCacheable();
+        if (cacheable != null && cacheable != 0 && cacheable != 1) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "响应缓存开关只能为0或1");
+        }
+        if (Integer.valueOf(1).equals(cacheable)) {
+            // 修改时未传缓存时长则沿用原值，网关对没有缓存时长的接口不做缓存
+            if (add && cacheTtl == null) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "开启响应缓存时必须设置缓存时长");
+            }
+            String method = interfaceInfo.getMethod();
+            if (method != null && !"GET".equalsIgnoreCase(method)) {
+                throw new BusinessException(ErrorCode.PARAMS_ERROR, "仅 GET 接口支持响应缓存");
+            }
+        }
     }
 
     @Override
@@ -112,7 +138,10 @@ public class InterfaceInfoServiceImpl extends ServiceImpl<InterfaceInfoMapper, I
         queryWrapper.eq("userId", userId).eq("interfaceInfoId", interfaceInfoId);
         UserInterfaceInfo existingPermission = userInterfaceInfoService.getOne(queryWrapper);
 
-        if (existingPermission == null) {
+        if (existingPermission == null && userInterfaceInfoService.restoreDeleted(userId, interfaceInfoId, remainNum)) {
+            cacheInvalidationManager.publishUserInterface(userId, interfaceInfoId);
+            log.info("恢复用户 {} 已删除的接口 {} 调用权限，剩余次数: {}", userId, interfaceInfoId, remainNum);
+        } else if (existingPermission == null) {
             // 创建新的权限记录
             UserInterfaceInfo userInterfaceInfo = new UserInterfaceInfo();
             userInterfaceInfo.setUserId(userId);
@@ -122,6 +151,8 @@ public class InterfaceInfoServiceImpl extends ServiceImpl<InterfaceInfoMapper, I
             userInterfaceInfo.setStatus(0); // 0-正常
 
             userInterfaceInfoService.save(userInterfaceInfo);
+            // 清理网关中可能存在的“未开通”负缓存
+            cacheInvalidationManager.publishUserInterface(userId, interfaceInfoId);
             log.info("为用户 {} 创建接口 {} 的调用权限，剩余次数: {}", userId, interfaceInfoId, remainNum);
         } else {
             log.info("用户 {} 已有接口 {} 的调用权限，跳过创建", userId, interfaceInfoId);
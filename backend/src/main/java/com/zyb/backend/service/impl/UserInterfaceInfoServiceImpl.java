@@ -7,6 +7,7 @@ import com.zyb.apiCommon.model.entity.User;
 import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
 import com.zyb.backend.common.ErrorCode;
 import com.zyb.backend.exception.BusinessException;
+import com.zyb.backend.manager.CacheInvalidationManager;
 import com.zyb.backend.mapper.InterfaceInfoMapper;
 import com.zyb.backend.mapper.UserInterfaceInfoMapper;
 import com.zyb.backend.mapper.UserMapper;
@@ -34,6 +35,9 @@ public class UserInterfaceInfoServiceImpl extends ServiceImpl<UserInterfaceInfoM
     @Resource
     private InterfaceInfoMapper interfaceInfoMapper;
 
+    @Resource
+    private CacheInvalidationManager cacheInvalidationManager;
+
     @Override
     public void validUserInterfaceInfo(UserInterfaceInfo userInterfaceInfo, boolean add) {
         if (userInterfaceInfo == null) {
@@ -118,9 +122,14 @@ public class UserInterfaceInfoServiceImpl extends ServiceImpl<UserInterfaceInfoM
                 .eq(UserInterfaceInfo::getInterfaceInfoId, interfaceInfoId)
                 .one();
 
+        boolean result;
         if (userInterfaceInfo != null) {
             // 已有记录，增加次数
             userInterfaceInfo.setRemainNum(userInterfaceInfo.getRemainNum() + count);
+            result = this.updateById(userInterfaceInfo);
+        } else if (restoreDeleted(loginUser.getId(), interfaceInfoId, count)) {
+            // 曾经开通后被删除，恢复原记录
+            result = true;
         } else {
             // 新纪录
             userInterfaceInfo = new UserInterfaceInfo();
@@ -129,8 +138,17 @@ public class UserInterfaceInfoServiceImpl extends ServiceImpl<UserInterfaceInfoM
             userInterfaceInfo.setTotalNum(0);
             userInterfaceInfo.setRemainNum(count);
             userInterfaceInfo.setStatus(0); // 假设 0 是启用状态
+            result = this.save(userInterfaceInfo);
         }
 
-        return this.saveOrUpdate(userInterfaceInfo);
+        // 事务提交后通知网关刷新用户与调用次数缓存
+        cacheInvalidationManager.publishUser(user);
+        cacheInvalidationManager.publishUserInterface(loginUser.getId(), interfaceInfoId);
+        return result;
+    }
+
+    @Override
+    public boolean restoreDeleted(long userId, long interfaceInfoId, int remainNum) {
+        return baseMapper.restoreDeleted(userId, interfaceInfoId, remainNum) > 0;
     }
 } 
\ No newline at end of file
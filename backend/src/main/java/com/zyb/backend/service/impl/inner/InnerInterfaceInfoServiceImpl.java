@@ -10,6 +10,8 @@ import jakarta.annotation.Resource;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.dubbo.config.annotation.DubboService;
 
+import java.util.List;
+
 @DubboService
 public class InnerInterfaceInfoServiceImpl implements InnerInterfaceInfoService {
 
@@ -29,4 +31,10 @@ public class InnerInterfaceInfoServiceImpl implements InnerInterfaceInfoService
 
         return interfaceInfoMapper.selectOne(queryWrapper);
     }
+
+    @Override
+    public List<InterfaceInfo> listInterfaceInfo() {
+        // 已删除的接口由逻辑删除过滤；已下线的接口也要返回，管理员上线前需要经网关测试调用
+        return interfaceInfoMapper.selectList(new QueryWrapper<>());
+    }
 }
@@ -1,18 +1,22 @@
 package com.zyb.backend.service.impl.inner;
 
-import com.zyb.apiCommon.model.entity.InterfaceInfo;
-import com.zyb.apiCommon.model.entity.User;
+import com.zyb.apiCommon.model.dto.InvokeCountBatchResult;
+import com.zyb.apiCommon.model.dto.InvokeCountDelta;
 import com.zyb.apiCommon.model.entity.UserInterfaceInfo;
 import com.zyb.apiCommon.service.InnerUserInterfaceInfoService;
 import com.zyb.backend.common.ErrorCode;
 import com.zyb.backend.exception.BusinessException;
-import com.zyb.backend.service.InterfaceInfoService;
+import com.zyb.backend.mapper.UserInterfaceInfoMapper;
 import com.zyb.backend.service.UserInterfaceInfoService;
-import com.zyb.backend.service.UserService;
 import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.dubbo.config.annotation.DubboService;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
 @DubboService
 public class InnerUserInterfaceInfoServiceImpl implements InnerUserInterfaceInfoService {
 
@@ -20,10 +24,7 @@ public class InnerUserInterfaceInfoServiceImpl implements InnerUserInterfaceInfo
     private UserInterfaceInfoService userInterfaceInfoService;
 
     @Resource
-    private UserService userService;
-
-    @Resource
-    private InterfaceInfoService interfaceInfoService;
+    private UserInterfaceInfoMapper userInterfaceInfoMapper;
 
 
     @Override
@@ -35,51 +36,53 @@ public class InnerUserInterfaceInfoServiceImpl implements InnerUserInterfaceInfo
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean invokeCountAndDeductBalance(long interfaceInfoId, long userId) {
         // 校验
         if (interfaceInfoId <= 0 || userId <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR);
         }
-        // 获取接口信息
-        InterfaceInfo interfaceInfo = interfaceInfoService.getById(interfaceInfoId);
-        if (interfaceInfo == null) {
-            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "接口不存在");
-        }
-        // 获取用户信息
-        User user = userService.getById(userId);
-        if (user == null) {
-            throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "用户不存在");
-        }
-        // 获取用户接口关系
-        UserInterfaceInfo userInterfaceInfo = this.checkUserInterface(interfaceInfoId, userId);
-        if (userInterfaceInfo == null) {
-            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "未开通接口调用权限");
-        }
 
         // TODO 所有接口全部免费，移除计费逻辑（收费之后再改）
 
-        // 计次逻辑
-        Integer remainNum = userInterfaceInfo.getRemainNum();
-        
-        // 仅增加总调用次数，无论是否为无限次调用
-        userInterfaceInfo.setTotalNum(userInterfaceInfo.getTotalNum() + 1);
-        
-        // remainNum != -1 为有限次调用接口，现在默认全部设置为 -1 表示无限调用
-        if (remainNum != -1) {
-            if (remainNum <= 0) {
-                throw new BusinessException(ErrorCode.OPERATION_ERROR, "调用次数不足");
-            }
-            // 扣减调用次数
-            userInterfaceInfo.setRemainNum(remainNum - 1);
+        // 计次逻辑：单条条件更新完成校验、计数与扣减，避免并发下先查后改丢失更新
+        int affectedRows = userInterfaceInfoMapper.invokeCount(interfaceInfoId, userId, 1);
+        if (affectedRows <= 0) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "未开通接口调用权限或调用次数不足");
         }
-        
-        // 无论是否扣减次数，都需要更新总调用次数
-            boolean updateUserInterfaceInfoResult = userInterfaceInfoService.updateById(userInterfaceInfo);
-            if (!updateUserInterfaceInfoResult) {
-                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "更新调用次数失败");
-        }
-
         return true;
     }
+
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public InvokeCountBatchResult batchInvokeCount(String batchId, List<InvokeCountDelta> deltas) {
+        if (batchId == null || batchId.isBlank()) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "缺少批次 id");
+        }
+        List<InvokeCountDelta> rejected = new ArrayList<>();
+        if (deltas == null || deltas.isEmpty()) {
+            return new InvokeCountBatchResult(false, rejected);
+        }
+        // 与记账在同一事务中登记批次：已登记说明之前的提交已成功（例如 RPC 超时但服务端已提交），不再重复记账
+        if (userInterfaceInfoMapper.insertBillingBatch(batchId) <= 0) {
+            log.info("计费批次已提交过，跳过: {}", batchId);
+            return new InvokeCountBatchResult(true, rejected);
+        }
+        for (InvokeCountDelta delta : deltas) {
+            if (delta.getUserId() == null || delta.getInterfaceInfoId() == null
+                    || delta.getCount() == null || delta.getCount() <= 0) {
+                log.warn("批量计费增量不合法，跳过: {}", delta);
+                rejected.add(delta);
+                continue;
+            }
+            // 调用已经发生，只能如实记账：调用次数全部累加，剩余次数最多扣到 0，无限次（-1）保持不变
+            int affectedRows = userInterfaceInfoMapper.recordInvokeCount(
+                    delta.getInterfaceInfoId(), delta.getUserId(), delta.getCount());
+            if (affectedRows <= 0) {
+                log.warn("批量计费未生效（未开通或已删除），userId: {}, interfaceId: {}, count: {}",
+                        delta.getUserId(), delta.getInterfaceInfoId(), delta.getCount());
+                rejected.add(delta);
+            }
+        }
+        return new InvokeCountBatchResult(false, rejected);
+    }
 }
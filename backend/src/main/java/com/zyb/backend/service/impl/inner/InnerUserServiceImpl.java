@@ -2,8 +2,10 @@ package com.zyb.backend.service.impl.inner;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.zyb.apiCommon.model.entity.User;
+import com.zyb.apiCommon.model.vo.GatewayAuthVO;
 import com.zyb.apiCommon.service.InnerUserService;
 import com.zyb.backend.common.ErrorCode;
+import com.zyb.backend.constant.UserConstant;
 import com.zyb.backend.exception.BusinessException;
 import com.zyb.backend.mapper.UserMapper;
 import jakarta.annotation.Resource;
@@ -27,4 +29,23 @@ public class InnerUserServiceImpl implements InnerUserService {
 
         return userMapper.selectOne(queryWrapper);
     }
+
+    @Override
+    public GatewayAuthVO getGatewayAuth(String accessKey) {
+        if (StringUtils.isAnyBlank(accessKey)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+
+        // 只查询网关需要的列
+        QueryWrapper<User> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("id", "secretKey", "userRole");
+        queryWrapper.eq("accessKey", accessKey);
+
+        User user = userMapper.selectOne(queryWrapper);
+        if (user == null) {
+            return null;
+        }
+        return new GatewayAuthVO(user.getId(), user.getSecretKey(), user.getUserRole(),
+                UserConstant.BAN_ROLE.equals(user.getUserRole()));
+    }
 }